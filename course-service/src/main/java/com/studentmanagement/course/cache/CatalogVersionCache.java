@@ -0,0 +1,79 @@
+package com.studentmanagement.course.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memo of the course catalog version, the ETag of GET /courses.
+ * <p>
+ * Computing the version is a full-table aggregate, so it is kept until
+ * something changes the catalog. The local replica drops it after its own
+ * course writes and seat reservations. Every replica also reads all of
+ * course-events and seat-reserved without a consumer group, so changes
+ * made by any replica drop it everywhere. The TTL bounds staleness if an
+ * invalidation is ever missed.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CatalogVersionCache {
+
+    private final long ttlMillis;
+
+    // Bumped on every invalidation so a version computed before a write is never stored after it
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CatalogVersion catalogVersion;
+
+    public CatalogVersionCache(@Value("${app.courses.catalog-version.ttl-seconds:30}") long ttlSeconds) {
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+    }
+
+    /**
+     * Return the cached catalog version, computing and caching it if unknown
+     */
+    public String get(Supplier<String> loader) {
+        CatalogVersion current = catalogVersion;
+        long now = System.currentTimeMillis();
+        if (current != null && current.generation() == generation.get() && current.expiresAt() > now) {
+            return current.value();
+        }
+        long loadedAt = generation.get();
+        String value = loader.get();
+        if (generation.get() == loadedAt) {
+            catalogVersion = new CatalogVersion(value, loadedAt, now + ttlMillis);
+        }
+        return value;
+    }
+
+    /**
+     * Forget the catalog version after a course write or seat reservation
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        catalogVersion = null;
+    }
+
+    /**
+     * Cross-replica invalidation.
+     * Groupless, so every replica gets its own copy of each event.
+     */
+    @KafkaListener(topicPartitions = {
+            @TopicPartition(topic = "${spring.kafka.topic.course-events:course-events}", partitions = "0"),
+            @TopicPartition(topic = "seat-reserved", partitions = "0-#{${app.saga.partitions:6} - 1}") },
+            containerFactory = "broadcastListenerContainerFactory")
+    public void onCatalogChange(ConsumerRecord<String, Object> record) {
+        log.debug("Dropping catalog version after {} event", record.topic());
+        invalidate();
+    }
+
+    private record CatalogVersion(String value, long generation, long expiresAt) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.studentmanagement.course.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Topics written by course-service
+ * <p>
+ * The seat outcomes are keyed by enrollment id and have app.saga.partitions
+ * partitions, which must match the partition range the catalog version cache
+ * assigns on seat-reserved.
+ * </p>
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.saga.partitions:6}")
+    private int partitions;
+
+    @Value("${app.saga.replicas:1}")
+    private short replicas;
+
+    /**
+     * Course events. The catalog version caches here and the course projection
+     * in enrollment-service assign partition 0 directly, so the topic has
+     * exactly one partition.
+     */
+    @Bean
+    public NewTopic courseEventsTopic(@Value("${spring.kafka.topic.course-events:course-events}") String topic) {
+        return TopicBuilder.name(topic).partitions(1).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic seatReservedTopic() {
+        return TopicBuilder.name("seat-reserved").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic seatReservationFailedTopic() {
+        return TopicBuilder.name("seat-reservation-failed").partitions(partitions).replicas(replicas).build();
+    }
+}
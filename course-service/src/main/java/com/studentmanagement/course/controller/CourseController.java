@@ -1,5 +1,6 @@
 package com.studentmanagement.course.controller;
 
+import com.studentmanagement.course.dto.CourseBatchDTO;
 import com.studentmanagement.course.dto.CourseDTO;
 import com.studentmanagement.course.service.CourseService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -33,16 +35,35 @@ public class CourseController {
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
     private final CourseService courseService;
 
+    /**
+     * Strong ETag of the catalog version; a matching If-None-Match gets 304
+     * before any course is loaded.
+     */
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getAllCourses() {
+    public ResponseEntity<List<CourseDTO>> getAllCourses(WebRequest request) {
         logger.info("REST request to get all courses");
+        // checkNotModified also sets the ETag header on a 200
+        if (request.checkNotModified(etag(courseService.getCatalogVersion()))) {
+            return null;
+        }
         return ResponseEntity.ok(courseService.getAllCourses());
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<CourseBatchDTO> getCoursesByIds(@RequestParam List<Long> ids) {
+        logger.info("REST request to get {} courses by id", ids.size());
+        return ResponseEntity.ok(courseService.getCoursesByIds(ids));
+    }
+
+    /**
+     * Strong ETag of the row version; a matching If-None-Match gets 304
+     * without a body.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<CourseDTO> getCourseById(@PathVariable Long id) {
         logger.info("REST request to get course by id: {}", id);
-        return ResponseEntity.ok(courseService.getCourseById(id));
+        CourseDTO course = courseService.getCourseById(id);
+        return ResponseEntity.ok().eTag(etag(course.getVersion())).body(course);
     }
 
     @PostMapping
@@ -68,4 +89,8 @@ public class CourseController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Course Service is Healthy");
     }
+
+    private static String etag(Object version) {
+        return "\"" + version + "\"";
+    }
 }
@@ -0,0 +1,20 @@
+package com.studentmanagement.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a multi-id course lookup.
+ * Found courses are keyed by id; ids with no course are listed in missing.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseBatchDTO {
+    private Map<Long, CourseDTO> courses;
+    private List<Long> missing;
+}
@@ -16,4 +16,5 @@ public class CourseDTO {
     private Integer credits;
     private Integer capacity;
     private Integer enrolledCount;
+    private Long version;
 }
@@ -30,4 +30,9 @@ public class Course {
 
     @Column(nullable = false)
     private Integer enrolledCount;
+
+    // Incremented on every update; backs the ETag of the course resource
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
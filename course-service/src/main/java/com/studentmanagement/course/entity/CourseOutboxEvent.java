@@ -0,0 +1,34 @@
+package com.studentmanagement.course.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A course lifecycle event waiting to be relayed to course-events.
+ * Written in the same transaction as the course change it describes and
+ * deleted once the broker has acknowledged it; the identity id gives the
+ * relay order.
+ */
+@Entity
+@Table(name = "course_outbox")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType; // CREATED, UPDATED, DELETED
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    private String title;
+
+    @Column(name = "event_timestamp", nullable = false)
+    private String timestamp;
+}
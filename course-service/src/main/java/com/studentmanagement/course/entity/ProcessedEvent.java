@@ -0,0 +1,36 @@
+package com.studentmanagement.course.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A saga step course-service has claimed for an enrollment, or the seat
+ * outcome it recorded for one (see IdempotencyGuard)
+ */
+@Entity
+@Table(name = "processed_events", uniqueConstraints = @UniqueConstraint(name = "uk_processed_events_step",
+        columnNames = { "consumer_group", "enrollment_id", "step" }))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessedEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "consumer_group", nullable = false)
+    private String consumerGroup;
+
+    @Column(name = "enrollment_id", nullable = false)
+    private Long enrollmentId;
+
+    @Column(nullable = false)
+    private String step;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,20 @@
+package com.studentmanagement.course.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Course lifecycle event, published to the course-events topic keyed by course id.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseEvent {
+    private String eventType; // CREATED, UPDATED, DELETED
+    private Long courseId;
+    private String title;
+    private String timestamp;
+}
@@ -5,6 +5,22 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Saga envelope passed along every step: enrollment-initiated, payment-success
+ * and seat-reserved (or the failure topics).
+ * <p>
+ * Every step forwards the student and course details it received, so the
+ * last step needs no remote lookups. The detail fields were added to the
+ * original ids-only event and are optional: events written before them, or
+ * by an older producer, leave them null, and consumers treat a null field as
+ * "look it up".
+ * </p>
+ * <p>
+ * {@code redrive} is set on events re-published for a stalled saga. A step
+ * that has already handled the enrollment then announces its outcome again
+ * instead of dropping the event as a duplicate.
+ * </p>
+ */
 @Data
 @Builder
 @AllArgsConstructor
@@ -16,4 +32,5 @@ public class EnrollmentInitiatedEvent {
     private String studentEmail;
     private String studentName;
     private String courseName;
+    private Boolean redrive;
 }
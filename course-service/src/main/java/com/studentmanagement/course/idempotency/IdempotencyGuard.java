@@ -0,0 +1,111 @@
+package com.studentmanagement.course.idempotency;
+
+import com.studentmanagement.course.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drops redelivered 'payment-success' events before a seat is reserved twice,
+ * and remembers which seat outcome each enrollment got.
+ * <p>
+ * The step is claimed in processed_events within the seat-reservation
+ * transaction, so a rolled-back reservation releases its claim. Every saga
+ * funnels through that transaction, so recently committed claims are also
+ * kept in a bounded in-memory LRU and most duplicates are dropped without a
+ * database round trip. The outcome rows let a re-driven saga announce
+ * 'seat-reserved' or 'seat-reservation-failed' again without touching the
+ * seat.
+ * </p>
+ * <p>
+ * Metric: {@code saga.events.duplicates{consumer_group, step, source=memory|store}}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class IdempotencyGuard {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> recent;
+
+    public IdempotencyGuard(ProcessedEventRepository processedEventRepository, MeterRegistry meterRegistry,
+            @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.processedEventRepository = processedEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.recent = Collections.newSetFromMap(Collections.synchronizedMap(
+                new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > cacheSize;
+                    }
+                }));
+    }
+
+    /**
+     * Claim a saga step for this consumer group within the caller's transaction
+     *
+     * @return true if the step is new and should be processed, false if it is a duplicate
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String consumerGroup, Long enrollmentId, String step) {
+        String key = consumerGroup + ":" + enrollmentId + ":" + step;
+        if (recent.contains(key)) {
+            dropped(consumerGroup, enrollmentId, step, "memory");
+            return false;
+        }
+        if (processedEventRepository.insertIfAbsent(consumerGroup, enrollmentId, step) == 0) {
+            recent.add(key);
+            dropped(consumerGroup, enrollmentId, step, "store");
+            return false;
+        }
+        // Only remember the step once it is durable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.add(key);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Record what a claimed step produced, within the caller's transaction, so a
+     * re-driven event can announce it again
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOutcome(String consumerGroup, Long enrollmentId, String outcome) {
+        processedEventRepository.insertIfAbsent(consumerGroup, enrollmentId, outcome);
+    }
+
+    /**
+     * Whether {@link #recordOutcome} recorded this outcome for the enrollment
+     */
+    public boolean hasOutcome(String consumerGroup, Long enrollmentId, String outcome) {
+        return processedEventRepository.existsByConsumerGroupAndEnrollmentIdAndStep(consumerGroup, enrollmentId,
+                outcome);
+    }
+
+    private void dropped(String consumerGroup, Long enrollmentId, String step, String source) {
+        log.info("[DUPLICATE] Dropping redelivered '{}' for EnrollmentID: {} in group {}", step, enrollmentId,
+                consumerGroup);
+        Counter.builder("saga.events.duplicates")
+                .tag("consumer_group", consumerGroup)
+                .tag("step", step)
+                .tag("source", source)
+                .description("Redelivered saga events dropped before processing")
+                .register(meterRegistry)
+                .increment();
+    }
+}
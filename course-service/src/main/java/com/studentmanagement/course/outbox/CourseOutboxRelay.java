@@ -0,0 +1,128 @@
+package com.studentmanagement.course.outbox;
+
+import com.studentmanagement.course.entity.CourseOutboxEvent;
+import com.studentmanagement.course.event.CourseEvent;
+import com.studentmanagement.course.repository.CourseOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Course Outbox Relay
+ * <p>
+ * Drains the {@code course_outbox} table to course-events in id order, the
+ * same way student-service relays its student events. Only the acknowledged
+ * prefix of a batch is deleted; anything after the first failed send stays
+ * and is retried on the next run, so events keep their order and are
+ * delivered at least once. A transaction-scoped advisory lock ensures only
+ * one replica relays at a time.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseOutboxRelay {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long RELAY_LOCK_KEY = 7_300_120L;
+
+    private final CourseOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.kafka.topic.course-events:course-events}")
+    private String topicName;
+
+    @Value("${app.courses.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.courses.outbox.ack-timeout-seconds:30}")
+    private long ackTimeoutSeconds;
+
+    /**
+     * Relay pending events, batch after batch, until the outbox is empty or a send fails
+     */
+    @Scheduled(fixedDelayString = "${app.courses.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Error relaying course outbox", e);
+        }
+    }
+
+    private int relayBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+        List<CourseOutboxEvent> batch = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (CourseOutboxEvent entry : batch) {
+            try {
+                CourseEvent event = CourseEvent.builder()
+                        .eventType(entry.getEventType())
+                        .courseId(entry.getCourseId())
+                        .title(entry.getTitle())
+                        .timestamp(entry.getTimestamp())
+                        .build();
+                // Keyed by course id so events for one course stay in order
+                sends.add(kafkaTemplate.send(topicName, entry.getCourseId().toString(), event));
+            } catch (Exception e) {
+                log.error("Error sending outbox event {}", entry.getId(), e);
+                break;
+            }
+        }
+
+        int acknowledged = awaitAcknowledgedPrefix(sends);
+        if (acknowledged > 0) {
+            outboxRepository.deleteAllByIdInBatch(batch.subList(0, acknowledged).stream()
+                    .map(CourseOutboxEvent::getId)
+                    .toList());
+            log.debug("Relayed {} course events", acknowledged);
+        }
+        if (acknowledged < batch.size()) {
+            log.warn("Relayed {} of {} course events; the rest will be retried", acknowledged, batch.size());
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Wait for acknowledgements in send order and return how many succeeded before the first failure
+     */
+    private int awaitAcknowledgedPrefix(List<CompletableFuture<?>> sends) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ackTimeoutSeconds);
+        int acknowledged = 0;
+        for (CompletableFuture<?> send : sends) {
+            try {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Course event was not acknowledged", e);
+                break;
+            }
+        }
+        return acknowledged;
+    }
+}
@@ -0,0 +1,24 @@
+package com.studentmanagement.course.repository;
+
+import com.studentmanagement.course.entity.CourseOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CourseOutboxRepository extends JpaRepository<CourseOutboxEvent, Long> {
+
+    /**
+     * Oldest pending events first
+     */
+    @Query("SELECT e FROM CourseOutboxEvent e ORDER BY e.id ASC")
+    List<CourseOutboxEvent> findOldest(Pageable pageable);
+
+    /**
+     * Try to take the transaction-scoped relay lock so only one replica relays at a time
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(@Param("key") long key);
+}
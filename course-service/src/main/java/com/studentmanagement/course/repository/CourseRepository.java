@@ -2,6 +2,28 @@ package com.studentmanagement.course.repository;
 
 import com.studentmanagement.course.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    /**
+     * Version of the whole course catalog as "count-maxId-versionSum".
+     * Ids are never reused and versions only grow, so any insert, update or
+     * delete changes at least one of the three parts.
+     */
+    @Query("SELECT CONCAT(CAST(COUNT(c) AS String), '-', CAST(COALESCE(MAX(c.id), 0) AS String), '-', "
+            + "CAST(COALESCE(SUM(c.version), 0) AS String)) FROM Course c")
+    String findCatalogVersion();
+
+    /**
+     * Take one seat if the course has one free
+     *
+     * @return 1 if a seat was reserved, 0 if the course is full or does not exist
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount + 1, c.version = c.version + 1 "
+            + "WHERE c.id = :id AND c.enrolledCount < c.capacity")
+    int reserveSeat(@Param("id") Long id);
 }
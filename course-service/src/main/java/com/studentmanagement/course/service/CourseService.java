@@ -1,18 +1,34 @@
 package com.studentmanagement.course.service;
 
+import com.studentmanagement.course.cache.CatalogVersionCache;
+import com.studentmanagement.course.dto.CourseBatchDTO;
 import com.studentmanagement.course.dto.CourseDTO;
 import com.studentmanagement.course.entity.Course;
+import com.studentmanagement.course.entity.CourseOutboxEvent;
+import com.studentmanagement.course.exception.BadRequestException;
 import com.studentmanagement.course.exception.ResourceNotFoundException;
+import com.studentmanagement.course.idempotency.IdempotencyGuard;
+import com.studentmanagement.course.repository.CourseOutboxRepository;
 import com.studentmanagement.course.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
 import com.studentmanagement.course.event.EnrollmentInitiatedEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -28,12 +44,27 @@ import java.util.stream.Collectors;
 @Slf4j // Enables logging
 public class CourseService {
 
+    private static final String CONSUMER_GROUP = "course-group";
+
     // Repository for database interactions (CRUD operations)
     private final CourseRepository courseRepository;
 
     // Kafka Template for sending asynchronous messages to message broker
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    // Memo of the catalog version, dropped on every change
+    private final CatalogVersionCache catalogVersionCache;
+
+    // Drops redelivered saga events so a seat is never reserved twice
+    private final IdempotencyGuard idempotencyGuard;
+
+    // Course lifecycle events waiting to be relayed to course-events
+    private final CourseOutboxRepository outboxRepository;
+
+    // Upper bound for the number of ids in one batch lookup
+    @Value("${app.courses.batch.max-ids:500}")
+    private int maxBatchIds;
+
     /**
      * Create a new course
      *
@@ -53,11 +84,14 @@ public class CourseService {
      * @return CourseDTO The persisted course with generated ID.
      */
     @SuppressWarnings("null")
+    @Transactional
     public CourseDTO createCourse(CourseDTO courseDTO) {
         // Convert DTO to Entity
         Course course = convertToEntity(courseDTO);
         // Save to database
         Course savedCourse = courseRepository.save(course);
+        afterCommit(catalogVersionCache::invalidate);
+        publishCourseEvent("CREATED", savedCourse.getId(), savedCourse.getTitle());
         // Return DTO
         return convertToDTO(savedCourse);
     }
@@ -73,6 +107,19 @@ public class CourseService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get the version of the whole course catalog
+     * <p>
+     * One aggregate query, cached until a course is created, updated,
+     * deleted or has a seat reserved on any replica.
+     * </p>
+     *
+     * @return The catalog version, used as the ETag of GET /courses
+     */
+    public String getCatalogVersion() {
+        return catalogVersionCache.get(courseRepository::findCatalogVersion);
+    }
+
     /**
      * Get course by ID
      *
@@ -85,6 +132,34 @@ public class CourseService {
         return convertToDTO(course);
     }
 
+    /**
+     * Get many courses by ID with a single query
+     *
+     * @param ids Course IDs (duplicates are ignored)
+     * @return Found courses keyed by id, in request order, plus the ids with no course
+     * @throws BadRequestException if more than max-ids distinct ids are requested
+     */
+    public CourseBatchDTO getCoursesByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > maxBatchIds) {
+            throw new BadRequestException("At most " + maxBatchIds + " ids can be requested at once");
+        }
+
+        Map<Long, CourseDTO> found = courseRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(Course::getId, this::convertToDTO));
+        Map<Long, CourseDTO> courses = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            if (found.containsKey(id)) {
+                courses.put(id, found.get(id));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new CourseBatchDTO(courses, missing);
+    }
+
     /**
      * Update an existing course
      *
@@ -92,6 +167,7 @@ public class CourseService {
      * @param courseDTO Updated data
      * @return Updated CourseDTO
      */
+    @Transactional
     public CourseDTO updateCourse(Long id, CourseDTO courseDTO) {
         Course existingCourse = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
@@ -105,6 +181,8 @@ public class CourseService {
         }
 
         Course updatedCourse = courseRepository.save(existingCourse);
+        afterCommit(catalogVersionCache::invalidate);
+        publishCourseEvent("UPDATED", updatedCourse.getId(), updatedCourse.getTitle());
         return convertToDTO(updatedCourse);
     }
 
@@ -118,11 +196,26 @@ public class CourseService {
      * @param id The unique identifier of the course to delete.
      * @throws ResourceNotFoundException if the course does not exist.
      */
+    @Transactional
     public void deleteCourse(Long id) {
         if (!courseRepository.existsById(id)) {
             throw new ResourceNotFoundException("Course not found with id: " + id);
         }
         courseRepository.deleteById(id);
+        afterCommit(catalogVersionCache::invalidate);
+        publishCourseEvent("DELETED", id, null);
+    }
+
+    /**
+     * Queue a course lifecycle event in the outbox, in the current transaction.
+     * {@link com.studentmanagement.course.outbox.CourseOutboxRelay} sends it to
+     * course-events after commit, so no event is sent for a rolled-back change
+     * and none is lost if the broker is unavailable.
+     */
+    private void publishCourseEvent(String eventType, Long courseId, String title) {
+        outboxRepository.save(new CourseOutboxEvent(null, eventType, courseId, title,
+                LocalDateTime.now().toString()));
+        log.info("Queued course event: {} for courseId: {}", eventType, courseId);
     }
 
     /**
@@ -136,6 +229,7 @@ public class CourseService {
                 .credits(course.getCredits())
                 .capacity(course.getCapacity())
                 .enrolledCount(course.getEnrolledCount())
+                .version(course.getVersion())
                 .build();
     }
 
@@ -159,44 +253,94 @@ public class CourseService {
      * If yes, reserves a seat and emits 'seat-reserved'.
      * If no, emits 'seat-reservation-failed'.
      * </p>
+     * <p>
+     * Runs on listener-concurrency threads. Events for one enrollment share a
+     * partition and are handled in order; the seat check is a single
+     * conditional UPDATE, so reservations for the same course from different
+     * threads do not conflict.
+     * </p>
+     * <p>
+     * A redelivered event is dropped before the seat check, so enrolledCount
+     * is incremented at most once per enrollment. The outcome is sent only
+     * after the transaction commits. Only business outcomes (course full or
+     * not found) fail the saga; any other exception rolls the step back,
+     * claim included, and the event is redelivered.
+     * </p>
+     * <p>
+     * The outcome is recorded next to the claim. A re-driven event (redrive
+     * flag set) for an enrollment already handled announces that outcome again
+     * instead of being dropped, so a saga whose outcome was lost can finish.
+     * </p>
      *
      * @param event The enrollment initiated event carrying details
      */
-    @KafkaListener(topics = "payment-success", groupId = "course-group")
+    @KafkaListener(topics = "payment-success", groupId = CONSUMER_GROUP,
+            concurrency = "${app.saga.listener-concurrency:3}")
+    @Transactional
     public void handlePaymentSuccess(EnrollmentInitiatedEvent event) {
+        if (!idempotencyGuard.claim(CONSUMER_GROUP, event.getEnrollmentId(), "payment-success")) {
+            if (Boolean.TRUE.equals(event.getRedrive())) {
+                announceOutcome(event);
+            }
+            return;
+        }
         log.info("[SAGA STEP 3] Received 'payment-success' event for EnrollmentID: {}. Checking seat availability...",
                 event.getEnrollmentId());
 
-        try {
-            // Find the course
-            Course course = courseRepository.findById(event.getCourseId())
-                    .orElseThrow(
-                            () -> new ResourceNotFoundException("Course not found with id: " + event.getCourseId()));
-
-            log.info("[INVENTORY CHECK] Checking seats for CourseID: {}. Capacity: {}, Enrolled: {}",
-                    course.getId(), course.getCapacity(), course.getEnrolledCount());
-
-            // Check capacity
-            if (course.getEnrolledCount() < course.getCapacity()) {
-                // Reserve seat
-                course.setEnrolledCount(course.getEnrolledCount() + 1);
-                courseRepository.save(course);
-
-                log.info("[SEAT RESERVED] Seat reserved for EnrollmentID: {}. Publishing 'seat-reserved' event.",
-                        event.getEnrollmentId());
-                // Continue Saga
-                kafkaTemplate.send("seat-reserved", event);
-            } else {
-                // Fail Saga
-                log.error(
-                        "[SEAT UNAVAILABLE] Seat reservation failed for EnrollmentID: {}. Publishing 'seat-reservation-failed' event.",
-                        event.getEnrollmentId());
-                kafkaTemplate.send("seat-reservation-failed", event);
+        // Check capacity and reserve in one statement, so concurrent reservations never conflict
+        String outcome;
+        if (event.getCourseId() != null && courseRepository.reserveSeat(event.getCourseId()) == 1) {
+            log.info("[SEAT RESERVED] Seat reserved for EnrollmentID: {}. Publishing 'seat-reserved' event.",
+                    event.getEnrollmentId());
+            // Continue Saga
+            outcome = "seat-reserved";
+        } else if (event.getCourseId() == null || !courseRepository.existsById(event.getCourseId())) {
+            log.error("[COURSE NOT FOUND] Course {} not found for EnrollmentID: {}. Publishing "
+                    + "'seat-reservation-failed' event.", event.getCourseId(), event.getEnrollmentId());
+            outcome = "seat-reservation-failed";
+        } else {
+            // Fail Saga
+            log.error(
+                    "[SEAT UNAVAILABLE] Seat reservation failed for EnrollmentID: {}. Publishing 'seat-reservation-failed' event.",
+                    event.getEnrollmentId());
+            outcome = "seat-reservation-failed";
+        }
+        idempotencyGuard.recordOutcome(CONSUMER_GROUP, event.getEnrollmentId(), outcome);
+        // Only announce the outcome once the seat and the idempotency claim are committed
+        afterCommit(() -> {
+            catalogVersionCache.invalidate();
+            kafkaTemplate.send(outcome, sagaKey(event), event);
+        });
+    }
+
+    /**
+     * Announce the recorded outcome of a re-driven saga again, without touching the seat
+     */
+    private void announceOutcome(EnrollmentInitiatedEvent event) {
+        for (String outcome : List.of("seat-reserved", "seat-reservation-failed")) {
+            if (idempotencyGuard.hasOutcome(CONSUMER_GROUP, event.getEnrollmentId(), outcome)) {
+                log.info("[REDRIVE] Re-announcing '{}' for EnrollmentID: {}", outcome, event.getEnrollmentId());
+                kafkaTemplate.send(outcome, sagaKey(event), event);
+                return;
             }
-        } catch (Exception e) {
-            log.error("Error processing payment-success event", e);
-            // Fail Saga on error
-            kafkaTemplate.send("seat-reservation-failed", event);
         }
+        log.warn("[REDRIVE] No recorded seat outcome for re-driven EnrollmentID: {}", event.getEnrollmentId());
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Saga messages are keyed by enrollment id, so the steps of one saga stay
+     * in order on one partition
+     */
+    private static String sagaKey(EnrollmentInitiatedEvent event) {
+        return String.valueOf(event.getEnrollmentId());
     }
 }
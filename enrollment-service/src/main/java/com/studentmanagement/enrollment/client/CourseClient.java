@@ -1,31 +1,128 @@
 package com.studentmanagement.enrollment.client;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CourseClient {
 
-    private final WebClient.Builder webClientBuilder;
+    // Shared, pre-built client with its own pool and bulkhead (see WebClientConfig)
+    private final WebClient webClient;
 
     @Value("${services.course.url}")
     private String courseServiceUrl;
 
+    // Upper bound for a whole call, including waiting for a pooled connection
+    @Value("${services.course.timeout:2s}")
+    private Duration timeout;
+
+    // Ids per /courses/batch call; must not exceed the Course Service's max-ids
+    @Value("${services.course.batch-size:500}")
+    private int batchSize;
+
+    // Batch calls in flight at once for one lookup
+    @Value("${services.course.batch-concurrency:4}")
+    private int batchConcurrency;
+
+    // Concurrent lookups of the same course share one call (see SingleFlight)
+    private final SingleFlight<Long, Map<String, Object>> lookups;
+
+    // Circuit breaker, overall timeout and hedging (see ResilientLookup)
+    private final ResilientLookup resilience;
+
+    public CourseClient(@Qualifier("courseWebClient") WebClient webClient, MeterRegistry meterRegistry,
+            @Value("${services.course.coalesce-ttl:100ms}") Duration coalesceTtl,
+            @Qualifier("courseLookups") ResilientLookup resilience) {
+        this.webClient = webClient;
+        this.lookups = new SingleFlight<>("course", coalesceTtl, meterRegistry);
+        this.resilience = resilience;
+    }
+
     public Map<String, Object> getCourse(Long courseId) {
-        return webClientBuilder.build()
+        return getCourseAsync(courseId).block();
+    }
+
+    /**
+     * Look up a course without blocking the calling thread.
+     * Concurrent lookups of the same id are coalesced into one call.
+     * Fails with a TimeoutException when no response arrives within the timeout,
+     * and at once while the circuit breaker is open.
+     */
+    public Mono<Map<String, Object>> getCourseAsync(Long courseId) {
+        return lookups.get(courseId, this::fetchCourse);
+    }
+
+    private Mono<Map<String, Object>> fetchCourse(Long courseId) {
+        return resilience.get(() -> webClient
                 .get()
-                .uri(courseServiceUrl + "/courses/" + courseId)
+                .uri(courseServiceUrl + "/courses/{id}", courseId)
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+                }));
+    }
+
+    /**
+     * Stream every course from GET /courses, used to load the local projection.
+     * The timeout applies to the gap between elements.
+     */
+    public Flux<Map<String, Object>> getAllCourses() {
+        return webClient
+                .get()
+                .uri(courseServiceUrl + "/courses")
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<Map<String, Object>>() {
                 })
-                .block();
+                .timeout(timeout);
+    }
+
+    /**
+     * Look up many courses through /courses/batch without blocking.
+     * Ids are split into batch-size chunks that are fetched in parallel;
+     * ids that do not exist are simply absent from the result.
+     */
+    public Mono<Map<Long, Map<String, Object>>> getCoursesAsync(Collection<Long> courseIds) {
+        List<Long> ids = new ArrayList<>(courseIds);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            chunks.add(ids.subList(i, Math.min(i + batchSize, ids.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .flatMap(this::fetchBatch, batchConcurrency)
+                .collect(HashMap::new, (all, batch) -> {
+                    if (batch.courses() != null) {
+                        all.putAll(batch.courses());
+                    }
+                });
+    }
+
+    private Mono<CourseBatch> fetchBatch(List<Long> ids) {
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return resilience.call(() -> webClient
+                .get()
+                .uri(courseServiceUrl + "/courses/batch?ids={ids}", joined)
+                .retrieve()
+                .bodyToMono(CourseBatch.class));
+    }
+
+    /**
+     * Response body of /courses/batch
+     */
+    record CourseBatch(Map<Long, Map<String, Object>> courses, List<Long> missing) {
     }
 }
@@ -0,0 +1,131 @@
+package com.studentmanagement.enrollment.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and request hedging for calls to one downstream service.
+ * <p>
+ * Every call goes through the downstream's circuit breaker. While it is open,
+ * calls fail at once with {@code CallNotPermittedException} instead of waiting
+ * for a timeout, and callers fall back to what they have locally. Every call
+ * is also bounded by the overall timeout, hedge included.
+ * </p>
+ * <p>
+ * Single-entity GETs can be hedged: if the first request has not answered
+ * after the recent p95 latency (never less than the minimum delay), a second
+ * one is sent. The load-balanced client sends it to the next instance, so one
+ * slow replica no longer sets the tail. The first answer wins and the other
+ * request is cancelled. Hedges add load only for the slowest ~5% of calls.
+ * </p>
+ * <p>
+ * Metrics, tagged with the entity name:
+ * {@code enrollment.lookup.latency}, {@code enrollment.lookup.hedges{outcome=sent|won}};
+ * breaker state is published as {@code resilience4j.circuitbreaker.*}.
+ * </p>
+ */
+public class ResilientLookup {
+
+    // How often the hedge delay is re-derived from the latency percentiles
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final CircuitBreaker circuitBreaker;
+    private final Duration timeout;
+    private final boolean hedging;
+    private final Duration minHedgeDelay;
+    private final Timer latency;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    private volatile Duration hedgeDelay;
+    private volatile long hedgeDelayRefreshedAt = System.nanoTime();
+
+    public ResilientLookup(String entity, CircuitBreaker circuitBreaker, Duration timeout, boolean hedging,
+            Duration minHedgeDelay, MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreaker;
+        this.timeout = timeout;
+        this.hedging = hedging;
+        this.minHedgeDelay = minHedgeDelay;
+        this.hedgeDelay = minHedgeDelay;
+        this.latency = Timer.builder("enrollment.lookup.latency")
+                .tag("entity", entity)
+                .description("Latency of single-entity lookups, per request sent")
+                .publishPercentiles(0.95)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        this.hedgesSent = Counter.builder("enrollment.lookup.hedges")
+                .tag("entity", entity)
+                .tag("outcome", "sent")
+                .description("Second requests sent because the first was slower than p95")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("enrollment.lookup.hedges")
+                .tag("entity", entity)
+                .tag("outcome", "won")
+                .description("Hedged requests that answered before the first")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Call an idempotent single-entity GET, hedging it if enabled
+     *
+     * @param request Sends one request each time it is called
+     */
+    public <T> Mono<T> get(Supplier<Mono<T>> request) {
+        Mono<T> call = hedging ? hedged(request) : timed(request);
+        return guard(call);
+    }
+
+    /**
+     * Call without hedging, for requests whose latency does not follow the single-entity p95
+     */
+    public <T> Mono<T> call(Supplier<Mono<T>> request) {
+        return guard(Mono.defer(request));
+    }
+
+    private <T> Mono<T> guard(Mono<T> call) {
+        return call.timeout(timeout).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private <T> Mono<T> hedged(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            Mono<T> backup = Mono.delay(currentHedgeDelay())
+                    .then(Mono.defer(() -> {
+                        hedgesSent.increment();
+                        // Only the winner completes; the loser is cancelled
+                        return timed(request).doOnSuccess(value -> hedgesWon.increment());
+                    }));
+            // The first signal wins, so an error such as 404 is not hedged
+            return Mono.firstWithSignal(timed(request), backup);
+        });
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.get().doOnSuccess(value -> latency.record(System.nanoTime() - start,
+                    TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Duration currentHedgeDelay() {
+        long now = System.nanoTime();
+        if (now - hedgeDelayRefreshedAt > HEDGE_DELAY_REFRESH_NANOS) {
+            hedgeDelayRefreshedAt = now;
+            Duration p95 = minHedgeDelay;
+            for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+                p95 = Duration.ofNanos((long) percentile.value(TimeUnit.NANOSECONDS));
+            }
+            hedgeDelay = p95.compareTo(minHedgeDelay) > 0 ? p95 : minHedgeDelay;
+        }
+        return hedgeDelay;
+    }
+}
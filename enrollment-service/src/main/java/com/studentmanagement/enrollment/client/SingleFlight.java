@@ -0,0 +1,88 @@
+package com.studentmanagement.enrollment.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Request coalescing for remote lookups.
+ * <p>
+ * Concurrent lookups of the same key share one remote call and its result.
+ * A successful result is also reused for a short micro-TTL after it arrives,
+ * so a burst that starts just after a call completes still costs one call.
+ * Errors and empty results are not reused; the next lookup tries again.
+ * </p>
+ * <p>
+ * Metrics, tagged with the entity name:
+ * {@code enrollment.lookup.calls{outcome=remote|coalesced}} and
+ * {@code enrollment.lookup.in.flight}. The share of coalesced calls is the
+ * fraction of remote calls saved.
+ * </p>
+ *
+ * @param <K> Lookup key
+ * @param <V> Lookup result
+ */
+public class SingleFlight<K, V> {
+
+    private final Duration microTtl;
+    private final Map<K, Mono<V>> flights = new ConcurrentHashMap<>();
+    private final Counter remote;
+    private final Counter coalesced;
+
+    public SingleFlight(String entity, Duration microTtl, MeterRegistry meterRegistry) {
+        this.microTtl = microTtl;
+        this.remote = Counter.builder("enrollment.lookup.calls")
+                .tag("entity", entity)
+                .tag("outcome", "remote")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("enrollment.lookup.calls")
+                .tag("entity", entity)
+                .tag("outcome", "coalesced")
+                .description("Lookups answered by another caller's remote call")
+                .register(meterRegistry);
+        Gauge.builder("enrollment.lookup.in.flight", flights, Map::size)
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up a key, joining an in-flight or just-completed call for the same key if there is one
+     */
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            boolean[] started = { false };
+            Mono<V> flight = flights.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return start(k, loader);
+            });
+            (started[0] ? remote : coalesced).increment();
+            return flight;
+        });
+    }
+
+    private Mono<V> start(K key, Function<K, Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        self.set(loader.apply(key)
+                .doOnSuccess(value -> {
+                    if (value == null || microTtl.isZero()) {
+                        flights.remove(key, self.get());
+                    } else {
+                        Schedulers.parallel().schedule(() -> flights.remove(key, self.get()),
+                                microTtl.toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                })
+                .doOnError(e -> flights.remove(key, self.get()))
+                .doOnCancel(() -> flights.remove(key, self.get()))
+                .cache(value -> microTtl, e -> Duration.ZERO, () -> Duration.ZERO));
+        return self.get();
+    }
+}
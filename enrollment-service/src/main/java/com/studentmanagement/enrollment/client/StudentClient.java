@@ -1,31 +1,128 @@
 package com.studentmanagement.enrollment.client;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class StudentClient {
 
-    private final WebClient.Builder webClientBuilder;
+    // Shared, pre-built client with its own pool and bulkhead (see WebClientConfig)
+    private final WebClient webClient;
 
     @Value("${services.student.url}")
     private String studentServiceUrl;
 
+    // Upper bound for a whole call, including waiting for a pooled connection
+    @Value("${services.student.timeout:2s}")
+    private Duration timeout;
+
+    // Ids per /students/batch call; must not exceed the Student Service's max-ids
+    @Value("${services.student.batch-size:500}")
+    private int batchSize;
+
+    // Batch calls in flight at once for one lookup
+    @Value("${services.student.batch-concurrency:4}")
+    private int batchConcurrency;
+
+    // Concurrent lookups of the same student share one call (see SingleFlight)
+    private final SingleFlight<Long, Map<String, Object>> lookups;
+
+    // Circuit breaker, overall timeout and hedging (see ResilientLookup)
+    private final ResilientLookup resilience;
+
+    public StudentClient(@Qualifier("studentWebClient") WebClient webClient, MeterRegistry meterRegistry,
+            @Value("${services.student.coalesce-ttl:100ms}") Duration coalesceTtl,
+            @Qualifier("studentLookups") ResilientLookup resilience) {
+        this.webClient = webClient;
+        this.lookups = new SingleFlight<>("student", coalesceTtl, meterRegistry);
+        this.resilience = resilience;
+    }
+
     public Map<String, Object> getStudent(Long studentId) {
-        return webClientBuilder.build()
+        return getStudentAsync(studentId).block();
+    }
+
+    /**
+     * Look up a student without blocking the calling thread.
+     * Concurrent lookups of the same id are coalesced into one call.
+     * Fails with a TimeoutException when no response arrives within the timeout,
+     * and at once while the circuit breaker is open.
+     */
+    public Mono<Map<String, Object>> getStudentAsync(Long studentId) {
+        return lookups.get(studentId, this::fetchStudent);
+    }
+
+    private Mono<Map<String, Object>> fetchStudent(Long studentId) {
+        return resilience.get(() -> webClient
                 .get()
-                .uri(studentServiceUrl + "/students/" + studentId)
+                .uri(studentServiceUrl + "/students/{id}", studentId)
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+                }));
+    }
+
+    /**
+     * Stream every student from GET /students, used to load the local projection.
+     * The timeout applies to the gap between elements.
+     */
+    public Flux<Map<String, Object>> getAllStudents() {
+        return webClient
+                .get()
+                .uri(studentServiceUrl + "/students")
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<Map<String, Object>>() {
                 })
-                .block();
+                .timeout(timeout);
+    }
+
+    /**
+     * Look up many students through /students/batch without blocking.
+     * Ids are split into batch-size chunks that are fetched in parallel;
+     * ids that do not exist are simply absent from the result.
+     */
+    public Mono<Map<Long, Map<String, Object>>> getStudentsAsync(Collection<Long> studentIds) {
+        List<Long> ids = new ArrayList<>(studentIds);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            chunks.add(ids.subList(i, Math.min(i + batchSize, ids.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .flatMap(this::fetchBatch, batchConcurrency)
+                .collect(HashMap::new, (all, batch) -> {
+                    if (batch.students() != null) {
+                        all.putAll(batch.students());
+                    }
+                });
+    }
+
+    private Mono<StudentBatch> fetchBatch(List<Long> ids) {
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return resilience.call(() -> webClient
+                .get()
+                .uri(studentServiceUrl + "/students/batch?ids={ids}", joined)
+                .retrieve()
+                .bodyToMono(StudentBatch.class));
+    }
+
+    /**
+     * Response body of /students/batch
+     */
+    record StudentBatch(Map<Long, Map<String, Object>> students, List<Long> missing) {
     }
 }
@@ -0,0 +1,85 @@
+package com.studentmanagement.enrollment.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency bulkhead for one downstream service.
+ * <p>
+ * Caps the calls in flight to that service. When the cap is reached, further
+ * calls fail at once with {@link BulkheadFullException} instead of queueing.
+ * A slow downstream can therefore only tie up its own share of capacity.
+ * </p>
+ * <p>
+ * A call holds its slot until the response body has been read or released,
+ * not just until the headers arrive, so a slowly streamed body still counts.
+ * </p>
+ * <p>
+ * Metrics, tagged with the downstream name:
+ * {@code http.client.bulkhead.active} and {@code http.client.bulkhead.rejected}.
+ * </p>
+ */
+public class Bulkhead implements ExchangeFilterFunction {
+
+    private final String downstream;
+    private final int maxConcurrentCalls;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejected;
+
+    public Bulkhead(String downstream, int maxConcurrentCalls, MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.rejected = Counter.builder("http.client.bulkhead.rejected")
+                .tag("downstream", downstream)
+                .description("Calls rejected because the downstream's bulkhead was full")
+                .register(meterRegistry);
+        Gauge.builder("http.client.bulkhead.active", active, AtomicInteger::get)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        Gauge.builder("http.client.bulkhead.max", () -> maxConcurrentCalls)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (active.incrementAndGet() > maxConcurrentCalls) {
+                active.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new BulkheadFullException(downstream, maxConcurrentCalls));
+            }
+            // Held until the response body is fully read or discarded, the call fails or the caller cancels
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    active.decrementAndGet();
+                }
+            };
+            return next.exchange(request)
+                    .map(response -> response.mutate()
+                            .body(body -> body.doFinally(signal -> release.run()))
+                            .build())
+                    .doOnError(e -> release.run())
+                    .doOnCancel(release);
+        });
+    }
+
+    /**
+     * Raised when a downstream already has its maximum number of calls in flight
+     */
+    public static class BulkheadFullException extends RuntimeException {
+        public BulkheadFullException(String downstream, int maxConcurrentCalls) {
+            super("Bulkhead full for " + downstream + " (" + maxConcurrentCalls + " calls in flight)");
+        }
+    }
+}
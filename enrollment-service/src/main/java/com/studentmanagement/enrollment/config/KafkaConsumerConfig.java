@@ -0,0 +1,84 @@
+package com.studentmanagement.enrollment.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Error handling for the Kafka listeners of this service
+ * <p>
+ * A failed batch is retried with exponential backoff; the consumer is paused
+ * meanwhile, so it keeps its partitions. Once max-elapsed has passed, each
+ * record of the batch is published to {@code <topic>.DLT} and the batch is
+ * committed. Spring Boot applies this handler to the listener containers.
+ * </p>
+ * <p>
+ * Broadcast listeners, which every replica must see in full, use
+ * {@code broadcastListenerContainerFactory} instead. Their consumers have no
+ * group id and are assigned partitions directly, so they commit no offsets
+ * and leave no consumer group behind on the broker when a replica stops.
+ * </p>
+ */
+@Configuration
+@Slf4j
+public class KafkaConsumerConfig {
+
+    @Value("${app.saga.retry.initial-interval:1s}")
+    private Duration initialInterval;
+
+    @Value("${app.saga.retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${app.saga.retry.max-interval:30s}")
+    private Duration maxInterval;
+
+    @Value("${app.saga.retry.max-elapsed:5m}")
+    private Duration maxElapsed;
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<String, Object> kafkaTemplate) {
+        // Partition -1 lets the producer choose, so dead-letter topics need not match the source's partitions
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> {
+                    log.error("Giving up on {}-{}@{}; publishing it to {}.DLT", record.topic(), record.partition(),
+                            record.offset(), record.topic(), e);
+                    return new TopicPartition(record.topic() + ".DLT", -1);
+                });
+
+        ExponentialBackOff backOff = new ExponentialBackOff(initialInterval.toMillis(), multiplier);
+        backOff.setMaxInterval(maxInterval.toMillis());
+        backOff.setMaxElapsedTime(maxElapsed.toMillis());
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> broadcastListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        Map<String, Object> properties = new HashMap<>(consumerFactory.getConfigurationProperties());
+        properties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, new DefaultKafkaConsumerFactory<>(properties));
+        // Broadcasts are best effort: a record that cannot be handled is logged and skipped
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
+        return factory;
+    }
+}
@@ -0,0 +1,50 @@
+package com.studentmanagement.enrollment.config;
+
+import com.studentmanagement.enrollment.progress.SagaProgressHub;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+/**
+ * Topics written by enrollment-service
+ * <p>
+ * 'enrollment-initiated' starts every saga in payment-service and
+ * 'enrollment-events' feeds notification-service. Both are keyed by
+ * enrollment id and have app.saga.partitions partitions.
+ * </p>
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.saga.partitions:6}")
+    private int partitions;
+
+    @Value("${app.saga.replicas:1}")
+    private short replicas;
+
+    @Bean
+    public NewTopic enrollmentInitiatedTopic() {
+        return TopicBuilder.name("enrollment-initiated").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic enrollmentEventsTopic() {
+        return TopicBuilder.name("enrollment-events").partitions(partitions).replicas(replicas).build();
+    }
+
+    /**
+     * Committed saga transitions for the progress streams of every replica.
+     * One partition is enough for the volume and lets consumers assign it directly.
+     */
+    @Bean
+    public NewTopic enrollmentProgressTopic() {
+        return TopicBuilder.name(SagaProgressHub.TOPIC).partitions(1).replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.studentmanagement.enrollment.config;
+
+import com.studentmanagement.enrollment.client.ResilientLookup;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breakers and hedging for the downstream clients
+ * <p>
+ * One {@link ResilientLookup} per downstream service, configured under
+ * {@code services.<name>.circuit-breaker.*} and {@code services.<name>.hedge.*}.
+ * A breaker counts 5xx responses, timeouts, connection errors and slow calls
+ * as failures. 4xx responses are answers, and a full {@link Bulkhead} is local
+ * back-pressure, so neither opens the breaker.
+ * </p>
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public ResilientLookup studentLookups(CircuitBreakerRegistry circuitBreakerRegistry, Environment environment,
+            MeterRegistry meterRegistry) {
+        return downstreamLookups("student", circuitBreakerRegistry, environment, meterRegistry);
+    }
+
+    @Bean
+    public ResilientLookup courseLookups(CircuitBreakerRegistry circuitBreakerRegistry, Environment environment,
+            MeterRegistry meterRegistry) {
+        return downstreamLookups("course", circuitBreakerRegistry, environment, meterRegistry);
+    }
+
+    private ResilientLookup downstreamLookups(String name, CircuitBreakerRegistry circuitBreakerRegistry,
+            Environment environment, MeterRegistry meterRegistry) {
+        String prefix = "services." + name + ".";
+        String breaker = prefix + "circuit-breaker.";
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(environment.getProperty(breaker + "sliding-window-size", Integer.class, 50))
+                .minimumNumberOfCalls(environment.getProperty(breaker + "minimum-calls", Integer.class, 20))
+                .failureRateThreshold(environment.getProperty(breaker + "failure-rate-threshold", Float.class, 50f))
+                .slowCallDurationThreshold(environment.getProperty(breaker + "slow-call-threshold", Duration.class,
+                        Duration.ofSeconds(1)))
+                .slowCallRateThreshold(environment.getProperty(breaker + "slow-call-rate-threshold", Float.class,
+                        50f))
+                .waitDurationInOpenState(environment.getProperty(breaker + "wait-in-open", Duration.class,
+                        Duration.ofSeconds(10)))
+                .permittedNumberOfCallsInHalfOpenState(environment.getProperty(breaker + "half-open-calls",
+                        Integer.class, 5))
+                .recordException(ResilienceConfig::isFailure)
+                .build();
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name + "-service", config);
+
+        return new ResilientLookup(name, circuitBreaker,
+                environment.getProperty(prefix + "timeout", Duration.class, Duration.ofSeconds(2)),
+                environment.getProperty(prefix + "hedge.enabled", Boolean.class, false),
+                environment.getProperty(prefix + "hedge.min-delay", Duration.class, Duration.ofMillis(50)),
+                meterRegistry);
+    }
+
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return !(e instanceof Bulkhead.BulkheadFullException);
+    }
+}
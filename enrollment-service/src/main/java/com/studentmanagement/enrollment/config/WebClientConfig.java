@@ -1,10 +1,33 @@
 package com.studentmanagement.enrollment.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * WebClient setup
+ * <p>
+ * Each downstream service gets one WebClient, built once and shared by all
+ * callers. Each has its own connection pool, connect and response timeouts,
+ * and a {@link Bulkhead}, so a slow downstream cannot use up the capacity
+ * meant for the others. Settings live under {@code services.<name>.*}.
+ * </p>
+ * <p>
+ * Pool utilisation and pending acquires are published as
+ * {@code reactor.netty.connection.provider.*} metrics tagged with the pool
+ * name. Per-call latency is published as {@code http.client.requests}.
+ * </p>
+ */
 @Configuration
 public class WebClientConfig {
 
@@ -13,4 +36,43 @@ public class WebClientConfig {
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    @Bean
+    public WebClient studentWebClient(@LoadBalanced WebClient.Builder webClientBuilder, Environment environment,
+            MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        return downstreamClient("student", webClientBuilder, environment, meterRegistry, observationRegistry);
+    }
+
+    @Bean
+    public WebClient courseWebClient(@LoadBalanced WebClient.Builder webClientBuilder, Environment environment,
+            MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        return downstreamClient("course", webClientBuilder, environment, meterRegistry, observationRegistry);
+    }
+
+    private WebClient downstreamClient(String name, WebClient.Builder webClientBuilder, Environment environment,
+            MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        String prefix = "services." + name + ".";
+        ConnectionProvider pool = ConnectionProvider.builder(name + "-service")
+                .maxConnections(environment.getProperty(prefix + "max-connections", Integer.class, 50))
+                .pendingAcquireMaxCount(environment.getProperty(prefix + "pending-acquire-max", Integer.class, 100))
+                .pendingAcquireTimeout(environment.getProperty(prefix + "pending-acquire-timeout", Duration.class,
+                        Duration.ofSeconds(1)))
+                .maxIdleTime(environment.getProperty(prefix + "max-idle-time", Duration.class,
+                        Duration.ofSeconds(30)))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) environment.getProperty(
+                        prefix + "connect-timeout", Duration.class, Duration.ofMillis(500)).toMillis())
+                .responseTimeout(environment.getProperty(prefix + "timeout", Duration.class, Duration.ofSeconds(2)));
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry)
+                .filter(new Bulkhead(name + "-service",
+                        environment.getProperty(prefix + "max-concurrent-calls", Integer.class, 100),
+                        meterRegistry))
+                .build();
+    }
 }
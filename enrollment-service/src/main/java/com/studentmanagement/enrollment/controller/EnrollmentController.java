@@ -1,14 +1,25 @@
 package com.studentmanagement.enrollment.controller;
 
+import com.studentmanagement.enrollment.dto.BulkEnrollmentRequest;
+import com.studentmanagement.enrollment.dto.BulkEnrollmentResponse;
 import com.studentmanagement.enrollment.dto.EnrollmentRequest;
 import com.studentmanagement.enrollment.dto.EnrollmentResponse;
+import com.studentmanagement.enrollment.dto.SagaTransition;
+import com.studentmanagement.enrollment.service.BulkEnrollmentService;
 import com.studentmanagement.enrollment.service.EnrollmentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -28,9 +39,16 @@ public class EnrollmentController {
 
     private static final Logger logger = LoggerFactory.getLogger(EnrollmentController.class);
     private final EnrollmentService enrollmentService;
+    private final BulkEnrollmentService bulkEnrollmentService;
 
-    public EnrollmentController(EnrollmentService enrollmentService) {
+    // Comment sent on idle progress streams so proxies keep them open
+    private final Duration heartbeat;
+
+    public EnrollmentController(EnrollmentService enrollmentService, BulkEnrollmentService bulkEnrollmentService,
+            @Value("${app.enrollments.progress.heartbeat:15s}") Duration heartbeat) {
         this.enrollmentService = enrollmentService;
+        this.bulkEnrollmentService = bulkEnrollmentService;
+        this.heartbeat = heartbeat;
     }
 
     @GetMapping
@@ -51,10 +69,75 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollmentService.getEnrollmentsByStudent(studentId));
     }
 
+    /**
+     * Start an enrollment.
+     * <p>
+     * Returns a Mono, so the request thread is released while the Student and
+     * Course lookups are in flight.
+     * </p>
+     */
     @PostMapping
-    public ResponseEntity<EnrollmentResponse> createEnrollment(@RequestBody EnrollmentRequest enrollment) {
+    public Mono<ResponseEntity<EnrollmentResponse>> createEnrollment(@RequestBody EnrollmentRequest enrollment) {
         logger.info("REST request to create enrollment: {}", enrollment);
-        return new ResponseEntity<>(enrollmentService.createEnrollment(enrollment), HttpStatus.CREATED);
+        return enrollmentService.createEnrollment(enrollment)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    /**
+     * Start an enrollment without waiting for its outcome.
+     * <p>
+     * Returns 202 Accepted with the PENDING enrollment and a Location header
+     * pointing at its progress stream, so clients can wait for the saga's
+     * outcome instead of polling GET /enrollments/{id}. If the enrollment
+     * could not be started, the CANCELLED response is returned with 422.
+     * </p>
+     */
+    @PostMapping(params = "async=true")
+    public Mono<ResponseEntity<EnrollmentResponse>> createEnrollmentAsync(
+            @RequestBody EnrollmentRequest enrollment) {
+        logger.info("REST request to create enrollment asynchronously: {}", enrollment);
+        return enrollmentService.createEnrollment(enrollment)
+                .map(response -> response.getId() == null
+                        ? ResponseEntity.unprocessableEntity().body(response)
+                        : ResponseEntity.accepted()
+                                .location(URI.create("/enrollments/" + response.getId() + "/progress"))
+                                .body(response));
+    }
+
+    /**
+     * Stream the saga progress of an enrollment as server-sent events.
+     * <p>
+     * Sends the current status, then each transition as it is applied, and
+     * closes after CONFIRMED or CANCELLED. Event names are the status values.
+     * </p>
+     */
+    @GetMapping(value = "/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SagaTransition>> streamSagaProgress(@PathVariable Long id) {
+        logger.info("REST request to stream saga progress for enrollment: {}", id);
+        Flux<ServerSentEvent<SagaTransition>> transitions = enrollmentService.getSagaProgress(id)
+                .map(transition -> ServerSentEvent.builder(transition)
+                        .event(transition.getStatus().name())
+                        .build());
+        Flux<ServerSentEvent<SagaTransition>> heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<SagaTransition>builder().comment("keep-alive").build());
+        // Marks the end of the transitions so the heartbeats stop with them
+        ServerSentEvent<SagaTransition> end = ServerSentEvent.<SagaTransition>builder().build();
+        return Flux.merge(transitions.concatWith(Mono.just(end)), heartbeats)
+                .takeWhile(event -> event != end);
+    }
+
+    /**
+     * Enroll a cohort of students into one course.
+     * <p>
+     * Returns one outcome per requested student; rejected students do not
+     * affect the others.
+     * </p>
+     */
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<BulkEnrollmentResponse>> enrollCohort(@RequestBody BulkEnrollmentRequest request) {
+        logger.info("REST request to enroll {} students into course: {}",
+                request.getStudentIds() != null ? request.getStudentIds().size() : 0, request.getCourseId());
+        return bulkEnrollmentService.enrollCohort(request).map(ResponseEntity::ok);
     }
 
     @DeleteMapping("/{id}")
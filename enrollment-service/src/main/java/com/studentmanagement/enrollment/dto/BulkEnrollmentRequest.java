@@ -0,0 +1,17 @@
+package com.studentmanagement.enrollment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEnrollmentRequest {
+    private Long courseId;
+    private List<Long> studentIds;
+}
@@ -0,0 +1,39 @@
+package com.studentmanagement.enrollment.dto;
+
+import com.studentmanagement.enrollment.entity.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk enrollment: one result per requested student, in request order
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEnrollmentResponse {
+    private Long courseId;
+    private String courseTitle;
+    private int requested;
+    private int enrolled;
+    private int rejected;
+    private List<StudentOutcome> results;
+
+    /**
+     * Result for one student. enrollmentId is set when an enrollment was created;
+     * status is PENDING for created enrollments and CANCELLED for rejected ones.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StudentOutcome {
+        private Long studentId;
+        private Long enrollmentId;
+        private Enrollment.EnrollmentStatus status;
+        private String message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.studentmanagement.enrollment.dto;
+
+import com.studentmanagement.enrollment.entity.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SagaTransition {
+    private Long enrollmentId;
+    private Enrollment.EnrollmentStatus status;
+    private LocalDateTime timestamp;
+}
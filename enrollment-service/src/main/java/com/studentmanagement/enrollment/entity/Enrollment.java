@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", indexes = @Index(name = "idx_enrollments_status_redrive",
+        columnList = "status, redrive_attempts, status_changed_at"))
 @Data
 @Builder
 @AllArgsConstructor
@@ -30,7 +31,41 @@ public class Enrollment {
     @Enumerated(EnumType.STRING)
     private EnrollmentStatus status;
 
+    // Time of the last saga transition (a re-drive counts as one); drives the stuck-saga sweeper
+    @Column(name = "status_changed_at", nullable = false, columnDefinition = "timestamp default now()")
+    private LocalDateTime statusChangedAt;
+
+    // Times the sweeper has re-published this saga since it last moved
+    @Column(name = "redrive_attempts", nullable = false, columnDefinition = "integer default 0")
+    private Integer redriveAttempts;
+
+    // Last step of a PENDING saga known to this service; tells the sweeper where to resume
+    @Enumerated(EnumType.STRING)
+    @Column(name = "saga_step", nullable = false, columnDefinition = "varchar(32) default 'INITIATED'")
+    private SagaStep sagaStep;
+
+    @PrePersist
+    void onCreate() {
+        if (statusChangedAt == null) {
+            statusChangedAt = LocalDateTime.now();
+        }
+        if (redriveAttempts == null) {
+            redriveAttempts = 0;
+        }
+        if (sagaStep == null) {
+            sagaStep = SagaStep.INITIATED;
+        }
+    }
+
     public enum EnrollmentStatus {
         ACTIVE, COMPLETED, DROPPED, PENDING, CONFIRMED, CANCELLED
     }
+
+    /**
+     * Progress of a PENDING saga: 'enrollment-initiated' sent, payment created
+     * and waiting for the student, or payment completed and waiting for a seat
+     */
+    public enum SagaStep {
+        INITIATED, AWAITING_PAYMENT, PAID
+    }
 }
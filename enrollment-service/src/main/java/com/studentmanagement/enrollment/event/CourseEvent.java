@@ -0,0 +1,18 @@
+package com.studentmanagement.enrollment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Course lifecycle event published by the Course Service
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseEvent {
+    private String eventType; // CREATED, UPDATED, DELETED
+    private Long courseId;
+    private String title;
+    private String timestamp;
+}
@@ -0,0 +1,24 @@
+package com.studentmanagement.enrollment.event;
+
+import com.studentmanagement.enrollment.entity.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Committed saga transitions, broadcast so every replica can update the
+ * progress streams it holds (see SagaProgressHub)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SagaProgressEvent {
+    // Replica that applied the transition; it has already told its own streams
+    private String origin;
+    private List<Long> enrollmentIds;
+    private Enrollment.EnrollmentStatus status;
+}
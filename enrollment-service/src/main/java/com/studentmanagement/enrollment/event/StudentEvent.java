@@ -0,0 +1,19 @@
+package com.studentmanagement.enrollment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Student lifecycle event published by the Student Service
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentEvent {
+    private String eventType; // CREATED, UPDATED, DELETED
+    private Long studentId;
+    private String studentEmail;
+    private String studentName;
+    private String timestamp;
+}
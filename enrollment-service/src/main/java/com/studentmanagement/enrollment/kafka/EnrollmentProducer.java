@@ -3,9 +3,16 @@ package com.studentmanagement.enrollment.kafka;
 import com.studentmanagement.enrollment.event.EnrollmentEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -14,8 +21,32 @@ public class EnrollmentProducer {
     private final KafkaTemplate<String, EnrollmentEvent> kafkaTemplate;
     private static final String TOPIC = "enrollment-events";
 
+    // How long to wait for the broker to acknowledge a batch of events
+    @Value("${app.enrollments.saga.publish-timeout:30s}")
+    private Duration publishTimeout;
+
     public void sendEnrollmentEvent(EnrollmentEvent event) {
         log.info("Sending enrollment event to topic {}: {}", TOPIC, event);
-        kafkaTemplate.send(TOPIC, event);
+        kafkaTemplate.send(TOPIC, String.valueOf(event.getEnrollmentId()), event);
+    }
+
+    /**
+     * Send a batch of events and wait until the broker has acknowledged all of them
+     *
+     * @throws KafkaException if any event could not be published in time
+     */
+    public void sendEnrollmentEvents(List<EnrollmentEvent> events) {
+        log.info("Sending {} enrollment events to topic {}", events.size(), TOPIC);
+        CompletableFuture<?>[] sends = events.stream()
+                .map(event -> kafkaTemplate.send(TOPIC, String.valueOf(event.getEnrollmentId()), event))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(publishTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while publishing enrollment events", e);
+        } catch (Exception e) {
+            throw new KafkaException("Could not publish " + events.size() + " enrollment events", e);
+        }
     }
 }
@@ -0,0 +1,191 @@
+package com.studentmanagement.enrollment.progress;
+
+import com.studentmanagement.enrollment.dto.SagaTransition;
+import com.studentmanagement.enrollment.entity.Enrollment;
+import com.studentmanagement.enrollment.event.SagaProgressEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fan-out of saga transitions to clients waiting on an enrollment.
+ * <p>
+ * Each open progress stream registers a small bounded buffer under its
+ * enrollment id. The replica that applies a transition tells its own streams
+ * once the change has committed and broadcasts it on the progress topic for
+ * the others, so a client is told about its enrollment no matter which
+ * replica it is connected to or which one applied the transition. A stream
+ * whose buffer is full drops further transitions instead of holding memory
+ * for a slow client; it ends on CONFIRMED, CANCELLED or the stream timeout.
+ * </p>
+ * <p>
+ * Metrics: {@code enrollment.progress.connections} and
+ * {@code enrollment.progress.dropped}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class SagaProgressHub {
+
+    public static final String TOPIC = "enrollment-progress";
+
+    // Distinguishes this replica's broadcasts from the others'
+    private final String replicaId = UUID.randomUUID().toString();
+
+    private final Map<Long, Set<Sinks.Many<SagaTransition>>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter dropped;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    // Upper bound for open progress streams on this replica
+    @Value("${app.enrollments.progress.max-connections:10000}")
+    private int maxConnections;
+
+    // Transitions buffered per stream before further ones are dropped
+    @Value("${app.enrollments.progress.buffer-size:8}")
+    private int bufferSize;
+
+    // A stream still PENDING after this long is closed; the client can reconnect
+    @Value("${app.enrollments.progress.timeout:5m}")
+    private Duration timeout;
+
+    public SagaProgressHub(MeterRegistry meterRegistry, KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.dropped = Counter.builder("enrollment.progress.dropped")
+                .description("Transitions not delivered because a stream's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("enrollment.progress.connections", open, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a progress stream for one enrollment
+     * <p>
+     * The stream is registered before {@code current} is read, so a transition
+     * applied in between is not missed. It starts with the current status and
+     * completes after the first terminal one.
+     * </p>
+     *
+     * @param enrollmentId The enrollment to follow
+     * @param current      Reads the enrollment's current status
+     * @throws ResponseStatusException 503 if this replica already has max-connections streams open
+     */
+    public Flux<SagaTransition> stream(Long enrollmentId, Mono<Enrollment.EnrollmentStatus> current) {
+        if (open.incrementAndGet() > maxConnections) {
+            open.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many progress streams open");
+        }
+        Sinks.Many<SagaTransition> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+        streams.compute(enrollmentId, (id, sinks) -> {
+            Set<Sinks.Many<SagaTransition>> registered = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+            registered.add(sink);
+            return registered;
+        });
+
+        return current.map(status -> new SagaTransition(enrollmentId, status, LocalDateTime.now()))
+                .concatWith(sink.asFlux())
+                .distinctUntilChanged(SagaTransition::getStatus)
+                .takeUntil(transition -> transition.getStatus() != Enrollment.EnrollmentStatus.PENDING)
+                .take(timeout)
+                .doFinally(signal -> {
+                    streams.computeIfPresent(enrollmentId, (id, sinks) -> {
+                        sinks.remove(sink);
+                        return sinks.isEmpty() ? null : sinks;
+                    });
+                    open.decrementAndGet();
+                });
+    }
+
+    /**
+     * Tell every stream following these enrollments, on any replica, that
+     * they moved to {@code status}
+     * <p>
+     * Call only after the status change has committed. Streams on this replica
+     * are told at once. The other replicas are told through the progress topic,
+     * so they also only hear of a transition once it can be read back.
+     * </p>
+     */
+    public void transitioned(Collection<Long> enrollmentIds, Enrollment.EnrollmentStatus status) {
+        if (enrollmentIds.isEmpty()) {
+            return;
+        }
+        enrollmentIds.forEach(id -> publish(id, status));
+        SagaProgressEvent event = SagaProgressEvent.builder()
+                .origin(replicaId)
+                .enrollmentIds(List.copyOf(enrollmentIds))
+                .status(status)
+                .build();
+        try {
+            kafkaTemplate.send(TOPIC, event).whenComplete((result, e) -> {
+                if (e != null) {
+                    log.warn("Could not broadcast {} {} transitions: {}", enrollmentIds.size(), status, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            // The transition is committed either way; remote streams pick it up on reconnect
+            log.warn("Could not broadcast {} {} transitions: {}", enrollmentIds.size(), status, e.getMessage());
+        }
+    }
+
+    /**
+     * Push a transition to every stream following the enrollment on this replica
+     */
+    private void publish(Long enrollmentId, Enrollment.EnrollmentStatus status) {
+        Set<Sinks.Many<SagaTransition>> sinks = streams.get(enrollmentId);
+        if (sinks == null) {
+            return;
+        }
+        SagaTransition transition = new SagaTransition(enrollmentId, status, LocalDateTime.now());
+        for (Sinks.Many<SagaTransition> sink : sinks) {
+            Sinks.EmitResult result;
+            // Listener threads may publish for the same enrollment at once
+            synchronized (sink) {
+                result = sink.tryEmitNext(transition);
+            }
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Transitions committed by the other replicas.
+     * The partition is assigned directly and no group id is set, so no offsets
+     * are committed and no consumer group outlives this replica.
+     */
+    @KafkaListener(topicPartitions = @TopicPartition(topic = TOPIC, partitions = "0"),
+            containerFactory = "broadcastListenerContainerFactory", batch = "true")
+    public void onSagaProgress(List<SagaProgressEvent> events) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        for (SagaProgressEvent event : events) {
+            if (event != null && event.getEnrollmentIds() != null && !replicaId.equals(event.getOrigin())) {
+                event.getEnrollmentIds().forEach(id -> publish(id, event.getStatus()));
+            }
+        }
+    }
+}
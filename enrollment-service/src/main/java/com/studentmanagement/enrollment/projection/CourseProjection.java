@@ -0,0 +1,50 @@
+package com.studentmanagement.enrollment.projection;
+
+import com.studentmanagement.enrollment.client.CourseClient;
+import com.studentmanagement.enrollment.event.CourseEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Local projection of courses (title), fed by course-events
+ */
+@Component
+public class CourseProjection extends ReferenceProjection {
+
+    private final CourseClient courseClient;
+
+    public CourseProjection(MeterRegistry meterRegistry, CourseClient courseClient) {
+        super("course", meterRegistry);
+        this.courseClient = courseClient;
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${spring.kafka.topic.course-events}",
+            partitions = "0"), containerFactory = "broadcastListenerContainerFactory")
+    public void onCourseEvent(CourseEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+        if (event.getCourseId() == null) {
+            return;
+        }
+        apply(event.getEventType(), event.getCourseId(), course(event.getTitle()), timestamp);
+    }
+
+    @Override
+    protected Flux<Map<String, Object>> snapshot() {
+        return courseClient.getAllCourses();
+    }
+
+    @Override
+    protected Map<String, Object> compact(Map<String, Object> remote) {
+        return course(remote.get("title"));
+    }
+
+    private static Map<String, Object> course(Object title) {
+        return title != null ? Map.of("title", title) : null;
+    }
+}
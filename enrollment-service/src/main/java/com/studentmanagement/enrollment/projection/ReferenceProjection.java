@@ -0,0 +1,208 @@
+package com.studentmanagement.enrollment.projection;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Local read model of another service's entities.
+ * <p>
+ * Keeps only the few fields enrollment needs, keyed by id, and is kept up to
+ * date from that service's lifecycle events. Every replica reads the whole
+ * topic without a consumer group, starting at the latest offset. Once its
+ * partitions are assigned it loads a snapshot over HTTP. Snapshot rows never
+ * overwrite entries that events have already written, since events are
+ * newer.
+ * </p>
+ * <p>
+ * A miss (not loaded yet, or an event was lost) falls back to the owning
+ * service and the answer is kept. Deleted ids are remembered as tombstones,
+ * so a late snapshot row cannot bring them back; a tombstone counts as a
+ * miss.
+ * </p>
+ * <p>
+ * Metrics, tagged with the entity name:
+ * <ul>
+ * <li>{@code enrollment.projection.lookups{result=hit|miss}}</li>
+ * <li>{@code enrollment.projection.size} and {@code enrollment.projection.ready}</li>
+ * <li>{@code enrollment.projection.event.lag}: time from an event being
+ * written to Kafka to it being applied here</li>
+ * <li>{@code enrollment.projection.staleness}: seconds since the projection
+ * last applied an event or finished its snapshot</li>
+ * </ul>
+ * </p>
+ */
+@Slf4j
+public abstract class ReferenceProjection implements ConsumerSeekAware {
+
+    // Unique instance, compared by identity
+    private static final Map<String, Object> TOMBSTONE = new HashMap<>();
+
+    private final String entity;
+    private final Map<Long, Map<String, Object>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean bootstrapStarted = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile long lastUpdateMillis = System.currentTimeMillis();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer eventLag;
+
+    protected ReferenceProjection(String entity, MeterRegistry meterRegistry) {
+        this.entity = entity;
+        this.hits = Counter.builder("enrollment.projection.lookups")
+                .tag("entity", entity)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("enrollment.projection.lookups")
+                .tag("entity", entity)
+                .tag("result", "miss")
+                .description("Lookups that went to the owning service")
+                .register(meterRegistry);
+        this.eventLag = Timer.builder("enrollment.projection.event.lag")
+                .tag("entity", entity)
+                .description("Time from an event being written to Kafka to it being applied")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("enrollment.projection.size", entries, Map::size)
+                .tag("entity", entity)
+                .register(meterRegistry);
+        Gauge.builder("enrollment.projection.ready", this, p -> p.ready ? 1 : 0)
+                .tag("entity", entity)
+                .register(meterRegistry);
+        Gauge.builder("enrollment.projection.staleness", this,
+                p -> (System.currentTimeMillis() - p.lastUpdateMillis) / 1000.0)
+                .tag("entity", entity)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Full snapshot of the entities, as returned by the owning service's list endpoint
+     */
+    protected abstract Flux<Map<String, Object>> snapshot();
+
+    /**
+     * Reduce a remote representation to the fields kept here, or null if it lacks them
+     */
+    protected abstract Map<String, Object> compact(Map<String, Object> remote);
+
+    /**
+     * Look up one entity, asking the owning service on a miss
+     */
+    public Mono<Map<String, Object>> lookup(Long id, Function<Long, Mono<Map<String, Object>>> remote) {
+        Map<String, Object> entry = entries.get(id);
+        if (entry != null && entry != TOMBSTONE) {
+            hits.increment();
+            return Mono.just(entry);
+        }
+        misses.increment();
+        return remote.apply(id).doOnNext(found -> remember(id, found));
+    }
+
+    /**
+     * Look up many entities, asking the owning service once for all misses
+     */
+    public Mono<Map<Long, Map<String, Object>>> lookupAll(Collection<Long> ids,
+            Function<Collection<Long>, Mono<Map<Long, Map<String, Object>>>> remote) {
+        Map<Long, Map<String, Object>> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Map<String, Object> entry = entries.get(id);
+            if (entry != null && entry != TOMBSTONE) {
+                found.put(id, entry);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.increment(found.size());
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+        misses.increment(missing.size());
+        return remote.apply(missing).map(fetched -> {
+            fetched.forEach(this::remember);
+            found.putAll(fetched);
+            return found;
+        });
+    }
+
+    /**
+     * Apply a lifecycle event
+     *
+     * @param eventType      CREATED, UPDATED or DELETED
+     * @param id             The entity id
+     * @param value          The compact entity, or null if the event does not carry it
+     * @param eventTimestamp When the event was written to Kafka (epoch millis)
+     */
+    protected void apply(String eventType, Long id, Map<String, Object> value, long eventTimestamp) {
+        if ("DELETED".equals(eventType)) {
+            entries.put(id, TOMBSTONE);
+        } else if (value != null) {
+            entries.put(id, value);
+        } else {
+            // Older events without the fields: drop the entry so the next lookup refetches it
+            entries.remove(id);
+        }
+        long now = System.currentTimeMillis();
+        lastUpdateMillis = now;
+        eventLag.record(Math.max(0, now - eventTimestamp), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Load the snapshot once, after the first partition assignment, so no
+     * event written after the snapshot is read can be missed
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (bootstrapStarted.compareAndSet(false, true)) {
+            bootstrap();
+        }
+    }
+
+    private void bootstrap() {
+        log.info("Loading {} projection snapshot", entity);
+        snapshot()
+                .doOnNext(remote -> remember(toId(remote.get("id")), remote))
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(2)))
+                .count()
+                .subscribe(count -> {
+                    ready = true;
+                    lastUpdateMillis = System.currentTimeMillis();
+                    log.info("{} projection ready: {} entries from snapshot", entity, count);
+                }, e -> log.error("Could not load {} projection snapshot; lookups fall back to remote calls",
+                        entity, e));
+    }
+
+    /**
+     * Keep a remotely fetched entity unless an event has already written a newer state
+     */
+    private void remember(Long id, Map<String, Object> remote) {
+        Map<String, Object> value = id != null ? compact(remote) : null;
+        if (value != null) {
+            entries.putIfAbsent(id, value);
+        }
+    }
+
+    private static Long toId(Object id) {
+        return id instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.studentmanagement.enrollment.projection;
+
+import com.studentmanagement.enrollment.client.StudentClient;
+import com.studentmanagement.enrollment.event.StudentEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Local projection of students (name and email), fed by student-events
+ */
+@Component
+public class StudentProjection extends ReferenceProjection {
+
+    private final StudentClient studentClient;
+
+    public StudentProjection(MeterRegistry meterRegistry, StudentClient studentClient) {
+        super("student", meterRegistry);
+        this.studentClient = studentClient;
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${spring.kafka.topic.student-events}",
+            partitions = "0"), containerFactory = "broadcastListenerContainerFactory")
+    public void onStudentEvent(StudentEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+        if (event.getStudentId() == null) {
+            return;
+        }
+        apply(event.getEventType(), event.getStudentId(), student(event.getStudentName(), event.getStudentEmail()),
+                timestamp);
+    }
+
+    @Override
+    protected Flux<Map<String, Object>> snapshot() {
+        return studentClient.getAllStudents();
+    }
+
+    @Override
+    protected Map<String, Object> compact(Map<String, Object> remote) {
+        return student(remote.get("name"), remote.get("email"));
+    }
+
+    private static Map<String, Object> student(Object name, Object email) {
+        return name != null && email != null ? Map.of("name", name, "email", email) : null;
+    }
+}
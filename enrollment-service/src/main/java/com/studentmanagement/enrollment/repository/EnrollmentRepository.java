@@ -1,9 +1,18 @@
 package com.studentmanagement.enrollment.repository;
 
 import com.studentmanagement.enrollment.entity.Enrollment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByStudentId(Long studentId);
@@ -13,4 +22,64 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Override
     @NonNull
     <S extends Enrollment> S save(@NonNull S entity);
+
+    @Query("SELECT e.status FROM Enrollment e WHERE e.id = :id")
+    Optional<Enrollment.EnrollmentStatus> findStatusById(@Param("id") Long id);
+
+    /**
+     * Move many PENDING enrollments to a final status with one statement
+     * <p>
+     * Enrollments that have already left PENDING are not touched, so a
+     * redelivered or late saga event cannot overwrite a final status.
+     * </p>
+     *
+     * @return The ids of the enrollments that were actually moved
+     */
+    @Transactional
+    @Query(value = "UPDATE enrollments SET status = :status, status_changed_at = :changedAt "
+            + "WHERE id IN (:ids) AND status = 'PENDING' RETURNING id", nativeQuery = true)
+    List<Long> updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") String status,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    /**
+     * Oldest enrollments in a status and one of the given saga steps that have been
+     * re-driven exactly {@code attempts} times and have not changed since {@code before}
+     */
+    @Query("SELECT e FROM Enrollment e WHERE e.status = :status AND e.sagaStep IN :steps "
+            + "AND e.redriveAttempts = :attempts AND e.statusChangedAt < :before ORDER BY e.statusChangedAt")
+    List<Enrollment> findStuck(@Param("status") Enrollment.EnrollmentStatus status,
+            @Param("steps") Collection<Enrollment.SagaStep> steps, @Param("attempts") int attempts,
+            @Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Record a re-drive of many enrollments; only those still in the given status are touched
+     *
+     * @return The number of enrollments updated
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Enrollment e SET e.redriveAttempts = e.redriveAttempts + 1, e.statusChangedAt = :changedAt "
+            + "WHERE e.id IN :ids AND e.status = :status")
+    int recordRedrive(@Param("ids") Collection<Long> ids, @Param("status") Enrollment.EnrollmentStatus status,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    /**
+     * Advance the saga step of many enrollments still in the given status and one of the
+     * {@code from} steps; a step counts as progress, so the re-drive budget starts over
+     *
+     * @return The number of enrollments updated
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Enrollment e SET e.sagaStep = :step, e.redriveAttempts = 0, e.statusChangedAt = :changedAt "
+            + "WHERE e.id IN :ids AND e.status = :status AND e.sagaStep IN :from")
+    int updateSagaStep(@Param("ids") Collection<Long> ids, @Param("status") Enrollment.EnrollmentStatus status,
+            @Param("from") Collection<Enrollment.SagaStep> from, @Param("step") Enrollment.SagaStep step,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    /**
+     * Try to take the transaction-scoped sweeper lock so only one replica re-drives at a time
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRedriveLock(@Param("key") long key);
 }
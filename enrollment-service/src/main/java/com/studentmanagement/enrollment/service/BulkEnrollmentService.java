@@ -0,0 +1,256 @@
+package com.studentmanagement.enrollment.service;
+
+import com.studentmanagement.enrollment.client.CourseClient;
+import com.studentmanagement.enrollment.client.StudentClient;
+import com.studentmanagement.enrollment.dto.BulkEnrollmentRequest;
+import com.studentmanagement.enrollment.dto.BulkEnrollmentResponse;
+import com.studentmanagement.enrollment.dto.BulkEnrollmentResponse.StudentOutcome;
+import com.studentmanagement.enrollment.entity.Enrollment;
+import com.studentmanagement.enrollment.event.EnrollmentInitiatedEvent;
+import com.studentmanagement.enrollment.projection.CourseProjection;
+import com.studentmanagement.enrollment.projection.StudentProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk (Cohort) Enrollment
+ * <p>
+ * Enrolls many students into one course in a single request:
+ * <ul>
+ * <li>The course and all students are validated together: local projections
+ * first, and one batch call to the Student Service for the misses.</li>
+ * <li>Enrollments are inserted with JDBC batches of chunk-size rows, each
+ * batch in its own transaction.</li>
+ * <li>After each batch commits, its 'enrollment-initiated' events are handed
+ * to the producer together, and all sends are awaited once at the end.</li>
+ * </ul>
+ * Every requested student gets an outcome. Students that do not exist,
+ * appear twice or have no id are rejected without affecting the rest. If a
+ * batch cannot be saved, only its students are rejected, with the reason;
+ * batches already committed stay enrolled and the partial result is returned.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkEnrollmentService {
+
+    private static final String INSERT_SQL = "INSERT INTO enrollments "
+            + "(student_id, course_id, enrollment_date, status, status_changed_at, redrive_attempts, saga_step) "
+            + "VALUES (?, ?, ?, ?, ?, 0, 'INITIATED')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final StudentClient studentClient;
+    private final CourseClient courseClient;
+    private final StudentProjection studentProjection;
+    private final CourseProjection courseProjection;
+
+    // Upper bound for the number of students in one request
+    @Value("${app.enrollments.bulk.max-students:5000}")
+    private int maxStudents;
+
+    // Rows per transaction / JDBC batch
+    @Value("${app.enrollments.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    // How long to wait for the broker to acknowledge the saga events
+    @Value("${app.enrollments.bulk.publish-timeout:30s}")
+    private Duration publishTimeout;
+
+    /**
+     * Enroll a cohort of students into one course
+     *
+     * @param request The course and the students to enroll
+     * @return One outcome per requested student
+     */
+    public Mono<BulkEnrollmentResponse> enrollCohort(BulkEnrollmentRequest request) {
+        List<Long> studentIds = request.getStudentIds() != null ? request.getStudentIds() : List.of();
+        if (request.getCourseId() == null || studentIds.isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "courseId and at least one studentId are required"));
+        }
+        if (studentIds.size() > maxStudents) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxStudents + " students can be enrolled at once"));
+        }
+        Set<Long> distinct = new LinkedHashSet<>(studentIds);
+        distinct.remove(null);
+        log.info("[BULK] Enrolling {} students into CourseID: {}", distinct.size(), request.getCourseId());
+
+        Mono<Optional<Map<String, Object>>> course = courseProjection
+                .lookup(request.getCourseId(), courseClient::getCourseAsync)
+                .map(Optional::of)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Optional.empty()))
+                .defaultIfEmpty(Optional.empty());
+        Mono<Map<Long, Map<String, Object>>> students = studentProjection
+                .lookupAll(distinct, studentClient::getStudentsAsync);
+
+        return Mono.zip(course, students)
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "Could not validate the course and students", e))
+                .publishOn(Schedulers.boundedElastic())
+                .map(found -> enroll(request.getCourseId(), studentIds, found.getT1(), found.getT2()));
+    }
+
+    private BulkEnrollmentResponse enroll(Long courseId, List<Long> studentIds,
+            Optional<Map<String, Object>> course, Map<Long, Map<String, Object>> students) {
+        List<StudentOutcome> results = new ArrayList<>(studentIds.size());
+        List<StudentOutcome> accepted = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Long studentId : studentIds) {
+            StudentOutcome outcome = new StudentOutcome(studentId, null, Enrollment.EnrollmentStatus.CANCELLED, null);
+            if (course.isEmpty()) {
+                outcome.setMessage("Course not found");
+            } else if (studentId == null) {
+                outcome.setMessage("Missing student id");
+            } else if (!seen.add(studentId)) {
+                outcome.setMessage("Duplicate student in request");
+            } else if (!students.containsKey(studentId)) {
+                outcome.setMessage("Student not found");
+            } else {
+                accepted.add(outcome);
+            }
+            results.add(outcome);
+        }
+
+        String courseName = course.map(c -> c.get("title")).map(Object::toString).orElse(null);
+        List<CompletableFuture<?>> sends = new ArrayList<>(accepted.size());
+        List<StudentOutcome> sent = new ArrayList<>(accepted.size());
+        int enrolled = 0;
+        for (int i = 0; i < accepted.size(); i += chunkSize) {
+            List<StudentOutcome> chunk = accepted.subList(i, Math.min(i + chunkSize, accepted.size()));
+            List<Long> ids;
+            try {
+                ids = transactionTemplate.execute(status -> insertBatch(courseId, chunk));
+            } catch (RuntimeException e) {
+                // Only this chunk rolled back; earlier chunks are committed and keep their outcomes
+                log.error("[BULK] CourseID: {} - could not save a chunk of {} enrollments", courseId, chunk.size(), e);
+                chunk.forEach(outcome -> outcome.setMessage("Enrollment could not be saved: " + e.getMessage()));
+                continue;
+            }
+            enrolled += chunk.size();
+            for (int j = 0; j < chunk.size(); j++) {
+                StudentOutcome outcome = chunk.get(j);
+                outcome.setEnrollmentId(ids.get(j));
+                outcome.setStatus(Enrollment.EnrollmentStatus.PENDING);
+
+                Map<String, Object> student = students.get(outcome.getStudentId());
+                EnrollmentInitiatedEvent sagaEvent = EnrollmentInitiatedEvent.builder()
+                        .enrollmentId(outcome.getEnrollmentId())
+                        .studentId(outcome.getStudentId())
+                        .courseId(courseId)
+                        .studentEmail((String) student.get("email"))
+                        .studentName(student.get("name") != null ? student.get("name").toString() : "Unknown")
+                        .courseName(courseName != null ? courseName : "Unknown")
+                        .build();
+                try {
+                    sends.add(kafkaTemplate.send("enrollment-initiated", String.valueOf(outcome.getEnrollmentId()),
+                            sagaEvent));
+                } catch (RuntimeException e) {
+                    sends.add(CompletableFuture.failedFuture(e));
+                }
+                sent.add(outcome);
+            }
+        }
+        awaitPublished(sends, sent);
+
+        log.info("[BULK] CourseID: {} - {} enrollments initiated, {} rejected", courseId, enrolled,
+                results.size() - enrolled);
+        return BulkEnrollmentResponse.builder()
+                .courseId(courseId)
+                .courseTitle(courseName)
+                .requested(results.size())
+                .enrolled(enrolled)
+                .rejected(results.size() - enrolled)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Insert one chunk of PENDING enrollments with a single JDBC batch and return their ids
+     */
+    private List<Long> insertBatch(Long courseId, List<StudentOutcome> chunk) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] { "id" })) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (StudentOutcome outcome : chunk) {
+                    ps.setLong(1, outcome.getStudentId());
+                    ps.setLong(2, courseId);
+                    ps.setTimestamp(3, now);
+                    ps.setString(4, Enrollment.EnrollmentStatus.PENDING.name());
+                    ps.setTimestamp(5, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(chunk.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != chunk.size()) {
+                    throw new IllegalStateException("Expected " + chunk.size() + " generated keys but got "
+                            + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Wait for every saga event; enrollments whose event was not acknowledged stay
+     * PENDING and are flagged so they can be retried
+     */
+    private void awaitPublished(List<CompletableFuture<?>> sends, List<StudentOutcome> outcomes) {
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flagUnpublished(outcomes.subList(i, outcomes.size()));
+                return;
+            } catch (Exception e) {
+                log.error("[BULK] Could not publish 'enrollment-initiated' for EnrollmentID: {}",
+                        outcomes.get(i).getEnrollmentId(), e);
+                flagUnpublished(List.of(outcomes.get(i)));
+            }
+        }
+    }
+
+    private void flagUnpublished(List<StudentOutcome> outcomes) {
+        outcomes.forEach(outcome -> outcome.setMessage(
+                "Enrollment saved but its saga event was not published; retry it with POST /enrollments/"
+                        + outcome.getEnrollmentId() + "/retry"));
+    }
+}
@@ -4,20 +4,39 @@ import com.studentmanagement.enrollment.client.CourseClient;
 import com.studentmanagement.enrollment.client.StudentClient;
 import com.studentmanagement.enrollment.dto.EnrollmentRequest;
 import com.studentmanagement.enrollment.dto.EnrollmentResponse;
+import com.studentmanagement.enrollment.dto.SagaTransition;
 import com.studentmanagement.enrollment.entity.Enrollment;
 import com.studentmanagement.enrollment.event.EnrollmentEvent;
 import com.studentmanagement.enrollment.event.EnrollmentInitiatedEvent;
 import com.studentmanagement.enrollment.kafka.EnrollmentProducer;
+import com.studentmanagement.enrollment.progress.SagaProgressHub;
+import com.studentmanagement.enrollment.projection.CourseProjection;
+import com.studentmanagement.enrollment.projection.StudentProjection;
 import com.studentmanagement.enrollment.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -50,86 +69,94 @@ public class EnrollmentService {
     private final EnrollmentProducer enrollmentProducer;
     private final StudentClient studentClient;
     private final CourseClient courseClient;
+    private final StudentProjection studentProjection;
+    private final CourseProjection courseProjection;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SagaProgressHub sagaProgressHub;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Enroll a student in a course
      * <p>
      * Initiates the enrollment Saga.
-     * 1. Validates Student and Course existence via synchronous HTTP calls.
+     * 1. Validates Student and Course existence against the local projections,
+     * falling back to the owning services on a miss. Both lookups are issued
+     * at the same time and composed without blocking, each with its own
+     * timeout.
      * 2. Creates an Enrollment record with status PENDING.
      * 3. Publishes 'enrollment-initiated' event to start the Saga.
      * </p>
+     * <p>
+     * No thread waits on the remote calls. The JPA save runs on the bounded
+     * elastic scheduler once both lookups have answered.
+     * </p>
      *
      * @param request Enrollment request details
-     * @return EnrollmentResponse with PENDING status
+     * @return EnrollmentResponse with PENDING status, or CANCELLED if validation fails
+     */
+    public Mono<EnrollmentResponse> enrollStudent(EnrollmentRequest request) {
+        return Mono.zip(lookupStudent(request.getStudentId()), lookupCourse(request.getCourseId()))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Student or Course not found")))
+                .publishOn(Schedulers.boundedElastic())
+                .map(found -> startSaga(request, found.getT1(), found.getT2()))
+                .onErrorResume(e -> {
+                    log.error("Error enrolling student: {}", e.getMessage(), e);
+                    // Instead of throwing 500, return a CANCELLED/FAILED response
+                    // This prevents the frontend from crashing and allows basic error handling
+                    return Mono.just(EnrollmentResponse.builder()
+                            .id(null) // ID is null because save might have failed
+                            .studentId(request.getStudentId())
+                            .courseId(request.getCourseId())
+                            .studentName("Unknown (Service Error)")
+                            .courseTitle("Unknown (Service Error)")
+                            .enrollmentDate(LocalDateTime.now())
+                            .status(Enrollment.EnrollmentStatus.CANCELLED)
+                            .build());
+                });
+    }
+
+    /**
+     * Create the PENDING enrollment and publish 'enrollment-initiated'
      */
     @SuppressWarnings("null")
-    public EnrollmentResponse enrollStudent(EnrollmentRequest request) {
-        try {
-            // Verify student exists (Synchronous call to Student Service)
-            Map<String, Object> student = studentClient.getStudent(request.getStudentId());
+    private EnrollmentResponse startSaga(EnrollmentRequest request, Map<String, Object> student,
+            Map<String, Object> course) {
+        // Extract student email
+        String studentEmail = (String) student.get("email");
+
+        // Create enrollment record
+        Enrollment enrollment = Enrollment.builder()
+                .studentId(request.getStudentId())
+                .courseId(request.getCourseId())
+                .enrollmentDate(LocalDateTime.now())
+                .status(Enrollment.EnrollmentStatus.PENDING)
+                .build();
 
-            // Verify course exists (Synchronous call to Course Service)
-            Map<String, Object> course = courseClient.getCourse(request.getCourseId());
+        enrollment = enrollmentRepository.save(enrollment);
+        log.info("[SAGA START] Enrollment initiated. ID: {}, StudentID: {}, CourseID: {}, Status: PENDING",
+                enrollment.getId(), request.getStudentId(), request.getCourseId());
 
-            if (student == null || course == null) {
-                throw new RuntimeException("Student or Course not found");
-            }
+        // Publish event to Kafka for Saga (Step 1)
+        EnrollmentInitiatedEvent sagaEvent = EnrollmentInitiatedEvent.builder()
+                .enrollmentId(enrollment.getId())
+                .studentId(enrollment.getStudentId())
+                .courseId(enrollment.getCourseId())
+                .studentEmail(studentEmail) // Pass email for notifications
+                .studentName(student.get("name") != null ? student.get("name").toString() : "Unknown")
+                .courseName(course.get("title") != null ? course.get("title").toString() : "Unknown")
+                .build();
 
-            // Extract student email
-            String studentEmail = (String) student.get("email");
-
-            // Create enrollment record
-            Enrollment enrollment = Enrollment.builder()
-                    .studentId(request.getStudentId())
-                    .courseId(request.getCourseId())
-                    .enrollmentDate(LocalDateTime.now())
-                    .status(Enrollment.EnrollmentStatus.PENDING)
-                    .build();
-
-            enrollment = enrollmentRepository.save(enrollment);
-            log.info("[SAGA START] Enrollment initiated. ID: {}, StudentID: {}, CourseID: {}, Status: PENDING",
-                    enrollment.getId(), request.getStudentId(), request.getCourseId());
-
-            // Publish event to Kafka for Saga (Step 1)
-            EnrollmentInitiatedEvent sagaEvent = EnrollmentInitiatedEvent.builder()
-                    .enrollmentId(enrollment.getId())
-                    .studentId(enrollment.getStudentId())
-                    .courseId(enrollment.getCourseId())
-                    .studentEmail(studentEmail) // Pass email for notifications
-                    .studentName(student.get("name") != null ? student.get("name").toString() : "Unknown")
-                    .courseName(course.get("title") != null ? course.get("title").toString() : "Unknown")
-                    .build();
-
-            log.info("[SAGA STEP 1] Publishing 'enrollment-initiated' event for EnrollmentID: {}", enrollment.getId());
-            kafkaTemplate.send("enrollment-initiated", sagaEvent);
-
-            return buildEnrollmentResponse(enrollment, student, course);
-        } catch (Exception e) {
-            log.error("Error enrolling student: {}", e.getMessage(), e);
-            // Instead of throwing 500, return a CANCELLED/FAILED response
-            // This prevents the frontend from crashing and allows basic error handling
-            return EnrollmentResponse.builder()
-                    .id(null) // ID is null because save might have failed
-                    .studentId(request.getStudentId())
-                    .courseId(request.getCourseId())
-                    .studentName("Unknown (Service Error)")
-                    .courseTitle("Unknown (Service Error)")
-                    .enrollmentDate(LocalDateTime.now())
-                    .status(Enrollment.EnrollmentStatus.CANCELLED)
-                    .build();
-        }
+        log.info("[SAGA STEP 1] Publishing 'enrollment-initiated' event for EnrollmentID: {}", enrollment.getId());
+        kafkaTemplate.send("enrollment-initiated", String.valueOf(sagaEvent.getEnrollmentId()), sagaEvent);
+
+        return buildEnrollmentResponse(enrollment, student, course);
     }
 
     /**
      * Get all enrollments
      */
     public List<EnrollmentResponse> getAllEnrollments() {
-        List<Enrollment> enrollments = enrollmentRepository.findAll();
-        return enrollments.stream()
-                .map(this::enrichEnrollmentResponse)
-                .collect(Collectors.toList());
+        return enrichEnrollmentResponses(enrollmentRepository.findAll());
     }
 
     /**
@@ -141,10 +168,33 @@ public class EnrollmentService {
         return enrichEnrollmentResponse(enrollment);
     }
 
-    public EnrollmentResponse createEnrollment(EnrollmentRequest request) {
+    public Mono<EnrollmentResponse> createEnrollment(EnrollmentRequest request) {
         return enrollStudent(request);
     }
 
+    /**
+     * Follow the saga of one enrollment
+     * <p>
+     * Emits the current status, then each transition as the saga applies it,
+     * and completes once the enrollment is CONFIRMED or CANCELLED. Reads only
+     * the status column; no remote calls are made.
+     * </p>
+     *
+     * @throws ResponseStatusException 404 if the enrollment does not exist
+     */
+    public Flux<SagaTransition> getSagaProgress(Long id) {
+        Enrollment.EnrollmentStatus status = enrollmentRepository.findStatusById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Enrollment not found with id: " + id));
+        if (status != Enrollment.EnrollmentStatus.PENDING) {
+            return Flux.just(new SagaTransition(id, status, LocalDateTime.now()));
+        }
+        // Re-read once the stream is registered, so a transition in between is not missed
+        return sagaProgressHub.stream(id, Mono.fromCallable(() -> enrollmentRepository.findStatusById(id)
+                .orElse(Enrollment.EnrollmentStatus.CANCELLED))
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
     public void deleteEnrollment(Long id) {
         if (!enrollmentRepository.existsById(id)) {
             throw new RuntimeException("Enrollment not found with id: " + id);
@@ -153,16 +203,51 @@ public class EnrollmentService {
     }
 
     public List<EnrollmentResponse> getEnrollmentsByStudent(Long studentId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByStudentId(studentId);
-        return enrollments.stream()
-                .map(this::enrichEnrollmentResponse)
-                .collect(Collectors.toList());
+        return enrichEnrollmentResponses(enrollmentRepository.findByStudentId(studentId));
     }
 
     public List<EnrollmentResponse> getEnrollmentsByCourse(Long courseId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
+        return enrichEnrollmentResponses(enrollmentRepository.findByCourseId(courseId));
+    }
+
+    /**
+     * Enrich a list of enrollments with details from other services
+     * <p>
+     * Collects the distinct student and course ids of the list and resolves
+     * them from the local projections, sending only the misses to the batch
+     * endpoints, students and courses in parallel.
+     * Remote calls therefore scale with the number of distinct entities, not
+     * with the number of rows. Ids that cannot be resolved show as "Unknown".
+     * </p>
+     */
+    private List<EnrollmentResponse> enrichEnrollmentResponses(List<Enrollment> enrollments) {
+        if (enrollments.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> studentIds = enrollments.stream().map(Enrollment::getStudentId).collect(Collectors.toSet());
+        Set<Long> courseIds = enrollments.stream().map(Enrollment::getCourseId).collect(Collectors.toSet());
+
+        Mono<Map<Long, Map<String, Object>>> students = studentProjection
+                .lookupAll(studentIds, studentClient::getStudentsAsync)
+                .onErrorResume(e -> {
+                    log.error("Failed to fetch {} students", studentIds.size(), e);
+                    return Mono.just(Map.of());
+                });
+        Mono<Map<Long, Map<String, Object>>> courses = courseProjection
+                .lookupAll(courseIds, courseClient::getCoursesAsync)
+                .onErrorResume(e -> {
+                    log.error("Failed to fetch {} courses", courseIds.size(), e);
+                    return Mono.just(Map.of());
+                });
+        Tuple2<Map<Long, Map<String, Object>>, Map<Long, Map<String, Object>>> resolved =
+                Mono.zip(students, courses).block();
+
+        Map<String, Object> unknownStudent = Map.of("name", "Unknown");
+        Map<String, Object> unknownCourse = Map.of("title", "Unknown");
         return enrollments.stream()
-                .map(this::enrichEnrollmentResponse)
+                .map(enrollment -> buildEnrollmentResponse(enrollment,
+                        resolved.getT1().getOrDefault(enrollment.getStudentId(), unknownStudent),
+                        resolved.getT2().getOrDefault(enrollment.getCourseId(), unknownCourse)))
                 .collect(Collectors.toList());
     }
 
@@ -175,9 +260,23 @@ public class EnrollmentService {
         return buildEnrollmentResponse(enrollment, student, course);
     }
 
+    /**
+     * Student details from the local projection, or the Student Service on a miss
+     */
+    private Mono<Map<String, Object>> lookupStudent(Long studentId) {
+        return studentProjection.lookup(studentId, studentClient::getStudentAsync);
+    }
+
+    /**
+     * Course details from the local projection, or the Course Service on a miss
+     */
+    private Mono<Map<String, Object>> lookupCourse(Long courseId) {
+        return courseProjection.lookup(courseId, courseClient::getCourseAsync);
+    }
+
     private Map<String, Object> fetchStudent(Long studentId) {
         try {
-            return studentClient.getStudent(studentId);
+            return lookupStudent(studentId).block();
         } catch (Exception e) {
             log.error("Failed to fetch student {}", studentId, e);
             return Map.of("name", "Unknown");
@@ -186,7 +285,7 @@ public class EnrollmentService {
 
     private Map<String, Object> fetchCourse(Long courseId) {
         try {
-            return courseClient.getCourse(courseId);
+            return lookupCourse(courseId).block();
         } catch (Exception e) {
             log.error("Failed to fetch course {}", courseId, e);
             return Map.of("title", "Unknown");
@@ -213,59 +312,185 @@ public class EnrollmentService {
      * This is the final step of the Saga. If payment and seat reservation succeed,
      * the enrollment is CONFIRMED.
      * </p>
+     * <p>
+     * Consumes a whole poll at a time: one UPDATE confirms every PENDING
+     * enrollment in the batch, and the notification events are built from
+     * the details the saga envelope carries and sent together. No remote call
+     * is made unless an event predates the envelope; those are looked up with
+     * one projection lookup per entity type.
+     * </p>
+     * <p>
+     * Only enrollments this UPDATE moved out of PENDING are notified, and only
+     * after it has committed, so no row lock or connection is held while the
+     * broker acknowledges. A redelivered batch finds its enrollments already
+     * CONFIRMED and sends nothing. Notifications that the producer still
+     * cannot deliver after its own retries are logged with their enrollment
+     * ids and counted in {@code enrollment.notifications.failed}; they are
+     * not re-sent, so a student is never emailed twice.
+     * </p>
      */
-    @KafkaListener(topics = "seat-reserved", groupId = "enrollment-group")
-    public void handleSeatReserved(EnrollmentInitiatedEvent event) {
-        log.info("[SAGA SUCCESS] Received 'seat-reserved' event for EnrollmentID: {}. Completing enrollment.",
-                event.getEnrollmentId());
-        updateEnrollmentStatus(event.getEnrollmentId(), Enrollment.EnrollmentStatus.CONFIRMED);
-
-        // Fetch details for notification
-        String studentName = "Unknown";
-        String courseName = "Unknown";
-        try {
-            Map<String, Object> student = studentClient.getStudent(event.getStudentId());
-            Map<String, Object> course = courseClient.getCourse(event.getCourseId());
-            if (student != null)
-                studentName = (String) student.get("name");
-            if (course != null)
-                courseName = (String) course.get("title");
-        } catch (Exception e) {
-            log.warn("Could not fetch details for notification: {}", e.getMessage());
+    @KafkaListener(topics = "seat-reserved", groupId = "enrollment-group", batch = "true",
+            concurrency = "${app.saga.listener-concurrency:3}")
+    public void handleSeatReserved(List<EnrollmentInitiatedEvent> events) {
+        List<EnrollmentInitiatedEvent> batch = validEvents(events);
+        if (batch.isEmpty()) {
+            return;
         }
-
-        // Publish Enrollment Event for Notification Service
-        EnrollmentEvent enrollmentEvent = EnrollmentEvent.builder()
-                .enrollmentId(event.getEnrollmentId())
-                .studentId(event.getStudentId())
-                .courseId(event.getCourseId())
-                .studentEmail(event.getStudentEmail())
-                .studentName(studentName)
-                .courseName(courseName)
-                .status("ACTIVE")
-                .eventTimestamp(LocalDateTime.now())
-                .build();
-
-        enrollmentProducer.sendEnrollmentEvent(enrollmentEvent);
-        log.info("Published EnrollmentEvent for Notification Service: {}", enrollmentEvent);
+        Set<Long> enrollmentIds = batch.stream().map(EnrollmentInitiatedEvent::getEnrollmentId)
+                .collect(Collectors.toSet());
+
+        // The saga envelope carries the details; only events written before it did need a lookup
+        List<EnrollmentInitiatedEvent> incomplete = batch.stream().filter(event -> !isEnriched(event)).toList();
+        Map<Long, Map<String, Object>> students = Map.of();
+        Map<Long, Map<String, Object>> courses = Map.of();
+        if (!incomplete.isEmpty()) {
+            log.info("{} 'seat-reserved' events lack student or course details; looking them up", incomplete.size());
+            try {
+                Tuple2<Map<Long, Map<String, Object>>, Map<Long, Map<String, Object>>> found = Mono.zip(
+                        studentProjection.lookupAll(distinct(incomplete, EnrollmentInitiatedEvent::getStudentId),
+                                studentClient::getStudentsAsync),
+                        courseProjection.lookupAll(distinct(incomplete, EnrollmentInitiatedEvent::getCourseId),
+                                courseClient::getCoursesAsync))
+                        .block();
+                students = found.getT1();
+                courses = found.getT2();
+            } catch (Exception e) {
+                log.warn("Could not fetch details for notification: {}", e.getMessage());
+            }
+        }
+        // One statement, committed on return; only enrollments it moved out of PENDING are notified
+        List<Long> confirmed = enrollmentRepository.updateStatusByIdIn(enrollmentIds,
+                Enrollment.EnrollmentStatus.CONFIRMED.name(), LocalDateTime.now());
+        Set<Long> notify = new HashSet<>(confirmed);
+
+        // Publish Enrollment Events for Notification Service
+        List<EnrollmentEvent> notifications = new ArrayList<>(confirmed.size());
+        for (EnrollmentInitiatedEvent event : batch) {
+            if (!notify.remove(event.getEnrollmentId())) {
+                continue;
+            }
+            Map<String, Object> student = students.getOrDefault(event.getStudentId(), Map.of());
+            Map<String, Object> course = courses.getOrDefault(event.getCourseId(), Map.of());
+            notifications.add(EnrollmentEvent.builder()
+                    .enrollmentId(event.getEnrollmentId())
+                    .studentId(event.getStudentId())
+                    .courseId(event.getCourseId())
+                    .studentEmail(firstNonNull(event.getStudentEmail(), student.get("email"), null))
+                    .studentName(firstNonNull(event.getStudentName(), student.get("name"), "Unknown"))
+                    .courseName(firstNonNull(event.getCourseName(), course.get("title"), "Unknown"))
+                    .status("ACTIVE")
+                    .eventTimestamp(LocalDateTime.now())
+                    .build());
+        }
+        if (!notifications.isEmpty()) {
+            try {
+                enrollmentProducer.sendEnrollmentEvents(notifications);
+            } catch (KafkaException e) {
+                // The confirmations are committed; redelivery would find nothing to notify, so don't rethrow
+                log.error("[SAGA SUCCESS] Could not publish notifications for EnrollmentIDs: {}",
+                        notifications.stream().map(EnrollmentEvent::getEnrollmentId).toList(), e);
+                meterRegistry.counter("enrollment.notifications.failed").increment(notifications.size());
+            }
+        }
+        log.info("[SAGA SUCCESS] Received {} 'seat-reserved' events. Confirmed {} enrollments.",
+                batch.size(), confirmed.size());
+        sagaProgressHub.transitioned(confirmed, Enrollment.EnrollmentStatus.CONFIRMED);
     }
 
     /**
      * Handle Saga Failure
      * <p>
      * If Payment or Seat Reservation fails, this listener triggers a rollback
-     * by setting the status to CANCELLED.
+     * by setting the status to CANCELLED. Like the success listener it takes a
+     * whole poll and cancels all of its PENDING enrollments with one UPDATE;
+     * enrollments already CONFIRMED or CANCELLED are left alone.
      * </p>
      */
-    @KafkaListener(topics = { "payment-failed", "seat-reservation-failed" }, groupId = "enrollment-group")
-    public void handleSagaFailure(EnrollmentInitiatedEvent event) {
-        log.error("[SAGA FAILURE] Received failure event for EnrollmentID: {}. Rolling back to CANCELLED.",
-                event.getEnrollmentId());
-        updateEnrollmentStatus(event.getEnrollmentId(), Enrollment.EnrollmentStatus.CANCELLED);
+    @KafkaListener(topics = { "payment-failed", "seat-reservation-failed" }, groupId = "enrollment-group",
+            batch = "true", concurrency = "${app.saga.listener-concurrency:3}")
+    public void handleSagaFailure(List<EnrollmentInitiatedEvent> events) {
+        List<EnrollmentInitiatedEvent> batch = validEvents(events);
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> enrollmentIds = batch.stream().map(EnrollmentInitiatedEvent::getEnrollmentId)
+                .collect(Collectors.toSet());
+        List<Long> cancelled = enrollmentRepository.updateStatusByIdIn(enrollmentIds,
+                Enrollment.EnrollmentStatus.CANCELLED.name(), LocalDateTime.now());
+        log.error("[SAGA FAILURE] Received {} failure events for EnrollmentIDs: {}. Rolled back {} to CANCELLED.",
+                batch.size(), enrollmentIds, cancelled.size());
+        sagaProgressHub.transitioned(cancelled, Enrollment.EnrollmentStatus.CANCELLED);
+    }
+
+    /**
+     * Track payment progress of PENDING sagas
+     * <p>
+     * 'payment-pending' means the payment exists and waits for the student;
+     * 'payment-success' means it was paid and the seat is next. The step
+     * tells the stuck-saga sweeper where to resume (see SagaRedriver). A step
+     * is only ever advanced, so a late 'payment-pending' cannot undo PAID.
+     * </p>
+     */
+    @KafkaListener(topics = { "payment-pending", "payment-success" }, groupId = "enrollment-group",
+            batch = "true", concurrency = "${app.saga.listener-concurrency:3}")
+    public void handlePaymentProgress(List<EnrollmentInitiatedEvent> events,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) List<String> topics) {
+        Set<Long> paid = new HashSet<>();
+        Set<Long> awaitingPayment = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            EnrollmentInitiatedEvent event = events.get(i);
+            if (event == null || event.getEnrollmentId() == null) {
+                continue;
+            }
+            ("payment-success".equals(topics.get(i)) ? paid : awaitingPayment).add(event.getEnrollmentId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!paid.isEmpty()) {
+            enrollmentRepository.updateSagaStep(paid, Enrollment.EnrollmentStatus.PENDING,
+                    List.of(Enrollment.SagaStep.INITIATED, Enrollment.SagaStep.AWAITING_PAYMENT),
+                    Enrollment.SagaStep.PAID, now);
+        }
+        if (!awaitingPayment.isEmpty()) {
+            enrollmentRepository.updateSagaStep(awaitingPayment, Enrollment.EnrollmentStatus.PENDING,
+                    List.of(Enrollment.SagaStep.INITIATED), Enrollment.SagaStep.AWAITING_PAYMENT, now);
+        }
+    }
+
+    /**
+     * Drop records that could not be deserialized or carry no enrollment id
+     */
+    private List<EnrollmentInitiatedEvent> validEvents(List<EnrollmentInitiatedEvent> events) {
+        List<EnrollmentInitiatedEvent> valid = events.stream()
+                .filter(event -> event != null && event.getEnrollmentId() != null)
+                .toList();
+        if (valid.size() < events.size()) {
+            log.warn("Skipping {} unreadable saga events", events.size() - valid.size());
+        }
+        return valid;
+    }
+
+    /**
+     * Whether a saga event carries everything the notification needs
+     */
+    private static boolean isEnriched(EnrollmentInitiatedEvent event) {
+        return event.getStudentEmail() != null && event.getStudentName() != null && event.getCourseName() != null;
+    }
+
+    private static String firstNonNull(String carried, Object looked, String fallback) {
+        if (carried != null) {
+            return carried;
+        }
+        return looked != null ? looked.toString() : fallback;
+    }
+
+    private static Set<Long> distinct(List<EnrollmentInitiatedEvent> events,
+            Function<EnrollmentInitiatedEvent, Long> id) {
+        return events.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
     }
 
     public EnrollmentResponse confirmEnrollment(Long id) {
         updateEnrollmentStatus(id, Enrollment.EnrollmentStatus.CONFIRMED);
+        sagaProgressHub.transitioned(List.of(id), Enrollment.EnrollmentStatus.CONFIRMED);
         return getEnrollmentById(id);
     }
 
@@ -274,10 +499,14 @@ public class EnrollmentService {
             log.info("[MANUAL UPDATE] Updating EnrollmentID: {} status from {} to {}",
                     enrollmentId, enrollment.getStatus(), status);
             enrollment.setStatus(status);
+            enrollment.setStatusChangedAt(LocalDateTime.now());
             enrollmentRepository.save(enrollment);
         }, () -> log.error("Enrollment not found for ID: {}", enrollmentId));
     }
 
+    /**
+     * Re-drive a PENDING saga from the step where it stopped (see SagaRedriver)
+     */
     public void retryEnrollment(Long enrollmentId) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found"));
@@ -297,9 +526,12 @@ public class EnrollmentService {
                 // Handle potential nulls safely
                 .studentName(student.get("name") != null ? student.get("name").toString() : "Unknown")
                 .courseName(course.get("title") != null ? course.get("title").toString() : "Unknown")
+                .redrive(true)
                 .build();
 
-        log.info("[RETRY] Re-publishing 'enrollment-initiated' event for EnrollmentID: {}", enrollment.getId());
-        kafkaTemplate.send("enrollment-initiated", sagaEvent);
+        String topic = SagaRedriver.resumeTopic(enrollment.getSagaStep());
+        log.info("[RETRY] Re-publishing '{}' for EnrollmentID: {} at step {}", topic, enrollment.getId(),
+                enrollment.getSagaStep());
+        kafkaTemplate.send(topic, String.valueOf(sagaEvent.getEnrollmentId()), sagaEvent);
     }
 }
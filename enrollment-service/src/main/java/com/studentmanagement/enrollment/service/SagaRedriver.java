@@ -0,0 +1,289 @@
+package com.studentmanagement.enrollment.service;
+
+import com.studentmanagement.enrollment.client.CourseClient;
+import com.studentmanagement.enrollment.client.StudentClient;
+import com.studentmanagement.enrollment.entity.Enrollment;
+import com.studentmanagement.enrollment.event.EnrollmentInitiatedEvent;
+import com.studentmanagement.enrollment.projection.CourseProjection;
+import com.studentmanagement.enrollment.projection.StudentProjection;
+import com.studentmanagement.enrollment.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stuck Saga Re-driver
+ * <p>
+ * Finds PENDING enrollments whose saga has not moved for a while and
+ * re-drives them from the step where they stopped, e.g. after the broker lost
+ * or refused an event. A saga still at INITIATED gets its
+ * 'enrollment-initiated' again; one that is PAID gets its 'payment-success'
+ * again. Both carry the redrive flag, so a step that already handled the
+ * enrollment announces its outcome again instead of dropping the duplicate.
+ * Sagas whose payment is created and waiting for the student
+ * (AWAITING_PAYMENT) are not stuck and are never re-driven.
+ * </p>
+ * <p>
+ * The n-th re-drive of an enrollment happens only once it has been idle for
+ * stuck-after * 2^n (capped at max-backoff). An enrollment is left alone after
+ * max-attempts re-drives without progress; POST /enrollments/{id}/retry
+ * re-drives it once more from the same step. Reaching a new step resets the
+ * count.
+ * </p>
+ * <p>
+ * Each batch first reads the due rows through idx_enrollments_status_redrive
+ * (one range per attempt count) and looks up their student and course
+ * details with one projection lookup per entity type, outside any
+ * transaction. Each lookup is bounded by lookup-timeout, and a failed one
+ * only leaves the details out, so a downstream outage does not stop the
+ * sweep. The batch then runs in one transaction: it takes an advisory lock
+ * so only one replica sweeps at a time, re-reads the due rows, sends the
+ * events and waits for them, and only then records the attempt
+ * with one UPDATE limited to rows that are still PENDING, so a saga that
+ * completed meanwhile keeps its status. A failed send rolls the batch back,
+ * so no attempt is used up. Batches are paced to rate-per-second and a run
+ * stops after max-per-run, so a backlog of thousands drains steadily instead
+ * of flooding the downstream services.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaRedriver {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long REDRIVE_LOCK_KEY = 7_300_119L;
+
+    // AWAITING_PAYMENT is waiting for the student, not stuck
+    private static final List<Enrollment.SagaStep> REDRIVABLE_STEPS =
+            List.of(Enrollment.SagaStep.INITIATED, Enrollment.SagaStep.PAID);
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentClient studentClient;
+    private final CourseClient courseClient;
+    private final StudentProjection studentProjection;
+    private final CourseProjection courseProjection;
+    private final MeterRegistry meterRegistry;
+
+    // Idle time before the first re-drive; doubles with every attempt
+    @Value("${app.enrollments.redrive.stuck-after:10m}")
+    private Duration stuckAfter;
+
+    @Value("${app.enrollments.redrive.max-backoff:6h}")
+    private Duration maxBackoff;
+
+    @Value("${app.enrollments.redrive.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.enrollments.redrive.batch-size:100}")
+    private int batchSize;
+
+    // Upper bound for re-published events per second
+    @Value("${app.enrollments.redrive.rate-per-second:50}")
+    private int ratePerSecond;
+
+    @Value("${app.enrollments.redrive.max-per-run:1000}")
+    private int maxPerRun;
+
+    @Value("${app.enrollments.saga.publish-timeout:30s}")
+    private Duration publishTimeout;
+
+    // Bound on each details lookup; the sweep goes on without details rather than waiting on a downstream
+    @Value("${app.enrollments.redrive.lookup-timeout:5s}")
+    private Duration lookupTimeout;
+
+    /**
+     * Re-drive due sagas, batch after batch, until none are due or max-per-run is reached
+     */
+    @Scheduled(initialDelayString = "${app.enrollments.redrive.interval-ms:60000}",
+            fixedDelayString = "${app.enrollments.redrive.interval-ms:60000}")
+    public void sweep() {
+        int redriven = 0;
+        try {
+            while (redriven < maxPerRun) {
+                long started = System.nanoTime();
+                int limit = Math.min(batchSize, maxPerRun - redriven);
+                int sent = redriveBatch(limit);
+                if (sent == 0) {
+                    break;
+                }
+                redriven += sent;
+                if (!pace(sent, started)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error re-driving stuck enrollment sagas", e);
+        }
+        if (redriven > 0) {
+            log.info("[REDRIVE] Re-drove {} stuck enrollment sagas", redriven);
+        }
+    }
+
+    private int redriveBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Enrollment> candidates = findDue(limit, now);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        // Resolved before the transaction, so no connection or lock is held across the remote calls
+        Tuple2<Map<Long, Map<String, Object>>, Map<Long, Map<String, Object>>> details = lookupDetails(candidates);
+        Integer sent = transactionTemplate.execute(status -> redriveLocked(limit, now, details));
+        return sent != null ? sent : 0;
+    }
+
+    /**
+     * Re-read the due rows under the sweeper lock and re-drive them; rows that were
+     * not among the candidates simply go out without details
+     */
+    private int redriveLocked(int limit, LocalDateTime now,
+            Tuple2<Map<Long, Map<String, Object>>, Map<Long, Map<String, Object>>> details) {
+        if (!enrollmentRepository.tryRedriveLock(REDRIVE_LOCK_KEY)) {
+            return 0;
+        }
+        List<Enrollment> due = findDue(limit, now);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(due.size());
+        for (Enrollment enrollment : due) {
+            Map<String, Object> student = details.getT1().getOrDefault(enrollment.getStudentId(), Map.of());
+            Map<String, Object> course = details.getT2().getOrDefault(enrollment.getCourseId(), Map.of());
+            // Unresolved details stay null, so the last saga step looks them up
+            EnrollmentInitiatedEvent sagaEvent = EnrollmentInitiatedEvent.builder()
+                    .enrollmentId(enrollment.getId())
+                    .studentId(enrollment.getStudentId())
+                    .courseId(enrollment.getCourseId())
+                    .studentEmail((String) student.get("email"))
+                    .studentName((String) student.get("name"))
+                    .courseName((String) course.get("title"))
+                    .redrive(true)
+                    .build();
+            sends.add(kafkaTemplate.send(resumeTopic(enrollment.getSagaStep()), String.valueOf(enrollment.getId()),
+                    sagaEvent));
+        }
+        awaitPublished(sends);
+
+        enrollmentRepository.recordRedrive(due.stream().map(Enrollment::getId).toList(),
+                Enrollment.EnrollmentStatus.PENDING, now);
+        for (Enrollment enrollment : due) {
+            if (enrollment.getRedriveAttempts() + 1 >= maxAttempts) {
+                log.warn("[REDRIVE] EnrollmentID: {} is still PENDING at {} after {} re-drives; giving up",
+                        enrollment.getId(), enrollment.getSagaStep(), maxAttempts);
+                meterRegistry.counter("enrollment.saga.redrives", "outcome", "exhausted").increment();
+            }
+        }
+        meterRegistry.counter("enrollment.saga.redrives", "outcome", "sent").increment(due.size());
+        return due.size();
+    }
+
+    private List<Enrollment> findDue(int limit, LocalDateTime now) {
+        List<Enrollment> due = new ArrayList<>();
+        for (int attempt = 0; attempt < maxAttempts && due.size() < limit; attempt++) {
+            due.addAll(enrollmentRepository.findStuck(Enrollment.EnrollmentStatus.PENDING, REDRIVABLE_STEPS,
+                    attempt, now.minus(backoff(attempt)), PageRequest.of(0, limit - due.size())));
+        }
+        return due;
+    }
+
+    /**
+     * Student and course details for the events, one projection lookup per entity type.
+     * A lookup that fails or times out yields no details; the last saga step looks them up.
+     */
+    private Tuple2<Map<Long, Map<String, Object>>, Map<Long, Map<String, Object>>> lookupDetails(
+            List<Enrollment> enrollments) {
+        return Mono.zip(
+                studentProjection.lookupAll(distinct(enrollments, Enrollment::getStudentId),
+                        studentClient::getStudentsAsync)
+                        .timeout(lookupTimeout)
+                        .onErrorResume(e -> {
+                            log.warn("[REDRIVE] Re-driving without student details: {}", e.getMessage());
+                            return Mono.just(Map.of());
+                        }),
+                courseProjection.lookupAll(distinct(enrollments, Enrollment::getCourseId),
+                        courseClient::getCoursesAsync)
+                        .timeout(lookupTimeout)
+                        .onErrorResume(e -> {
+                            log.warn("[REDRIVE] Re-driving without course details: {}", e.getMessage());
+                            return Mono.just(Map.of());
+                        }))
+                .block();
+    }
+
+    /**
+     * Topic that resumes a saga stopped at the given step
+     */
+    static String resumeTopic(Enrollment.SagaStep step) {
+        return step == Enrollment.SagaStep.PAID ? "payment-success" : "enrollment-initiated";
+    }
+
+    /**
+     * Idle time required before the given re-drive attempt
+     */
+    private Duration backoff(int attempt) {
+        Duration backoff = stuckAfter.multipliedBy(1L << Math.min(attempt, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * Wait for every send; any failure rolls the batch back so it is retried on the next run
+     */
+    private void awaitPublished(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(publishTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while re-driving enrollment sagas", e);
+        } catch (Exception e) {
+            throw new KafkaException("Could not re-publish " + sends.size() + " saga events", e);
+        }
+    }
+
+    /**
+     * Sleep so that sent events take at least sent / rate-per-second seconds
+     *
+     * @return false if interrupted
+     */
+    private boolean pace(int sent, long startedNanos) {
+        long minNanos = TimeUnit.SECONDS.toNanos(sent) / Math.max(1, ratePerSecond);
+        long remaining = minNanos - (System.nanoTime() - startedNanos);
+        if (remaining <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Set<Long> distinct(List<Enrollment> enrollments, Function<Enrollment, Long> id) {
+        return enrollments.stream().map(id).collect(Collectors.toSet());
+    }
+}
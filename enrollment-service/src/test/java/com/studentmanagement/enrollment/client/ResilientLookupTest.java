@@ -0,0 +1,113 @@
+package com.studentmanagement.enrollment.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientLookupTest {
+
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("course-service");
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Test
+    void hedgesASlowRequestAndCancelsTheLoser() {
+        ResilientLookup lookup = lookup(true);
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+
+        String result = lookup.get(responses(
+                Mono.<String>never().doOnCancel(() -> firstCancelled.set(true)),
+                Mono.just("from the hedge"))).block();
+
+        assertThat(result).isEqualTo("from the hedge");
+        assertThat(sent).hasValue(2);
+        assertThat(firstCancelled).isTrue();
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHedgeAFastRequest() {
+        ResilientLookup lookup = lookup(true);
+
+        assertThat(lookup.get(responses(Mono.just("fast"))).block()).isEqualTo("fast");
+
+        assertThat(sent).hasValue(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void doesNotHedgeAnError() {
+        ResilientLookup lookup = lookup(true);
+
+        assertThatThrownBy(() -> lookup.get(responses(Mono.error(new IllegalStateException("not found")))).block())
+                .hasMessage("not found");
+
+        assertThat(sent).hasValue(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    void sendsOneRequestWhenHedgingIsOff() {
+        ResilientLookup lookup = lookup(false);
+
+        assertThat(lookup.get(responses(Mono.just("slow").delayElement(HEDGE_DELAY.multipliedBy(3)))).block())
+                .isEqualTo("slow");
+
+        assertThat(sent).hasValue(1);
+    }
+
+    @Test
+    void boundsTheHedgedCallByTheOverallTimeout() {
+        ResilientLookup lookup = lookup(true);
+
+        assertThatThrownBy(() -> lookup.get(responses(Mono.never(), Mono.never())).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        assertThat(sent).hasValue(2);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void failsFastWhileTheBreakerIsOpen() {
+        ResilientLookup lookup = lookup(true);
+        circuitBreaker.transitionToOpenState();
+
+        assertThatThrownBy(() -> lookup.get(responses(Mono.just("unused"))).block())
+                .isInstanceOf(CallNotPermittedException.class);
+
+        assertThat(sent).hasValue(0);
+    }
+
+    private ResilientLookup lookup(boolean hedging) {
+        return new ResilientLookup("course", circuitBreaker, Duration.ofMillis(500), hedging, HEDGE_DELAY,
+                meterRegistry);
+    }
+
+    /**
+     * A request that answers with the given responses in turn, one per request sent
+     */
+    @SafeVarargs
+    private Supplier<Mono<String>> responses(Mono<String>... responses) {
+        List<Mono<String>> queue = List.of(responses);
+        return () -> queue.get(Math.min(sent.getAndIncrement(), queue.size() - 1));
+    }
+
+    private double hedges(String outcome) {
+        return meterRegistry.get("enrollment.lookup.hedges").tag("outcome", outcome).counter().count();
+    }
+}
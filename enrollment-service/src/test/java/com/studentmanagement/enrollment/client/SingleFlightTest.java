@@ -0,0 +1,102 @@
+package com.studentmanagement.enrollment.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    @Test
+    void concurrentLookupsShareOneRemoteCall() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("student", Duration.ZERO, meterRegistry);
+        Sinks.One<String> response = Sinks.one();
+        Function<Long, Mono<String>> loader = id -> {
+            remoteCalls.incrementAndGet();
+            return response.asMono();
+        };
+        AtomicReference<String> first = new AtomicReference<>();
+        AtomicReference<String> second = new AtomicReference<>();
+
+        flight.get(1L, loader).subscribe(first::set);
+        flight.get(1L, loader).subscribe(second::set);
+        response.tryEmitValue("Ada");
+
+        assertThat(remoteCalls).hasValue(1);
+        assertThat(first).hasValue("Ada");
+        assertThat(second).hasValue("Ada");
+        assertThat(count("remote")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+        assertThat(meterRegistry.get("enrollment.lookup.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void differentKeysDoNotShareACall() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("student", Duration.ofMinutes(1), meterRegistry);
+
+        assertThat(flight.get(1L, this::load).block()).isEqualTo("student-1");
+        assertThat(flight.get(2L, this::load).block()).isEqualTo("student-2");
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void reusesAResultForTheMicroTtl() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("student", Duration.ofMinutes(1), meterRegistry);
+
+        flight.get(1L, this::load).block();
+        flight.get(1L, this::load).block();
+
+        assertThat(remoteCalls).hasValue(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void callsAgainOnceTheMicroTtlIsZero() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("student", Duration.ZERO, meterRegistry);
+
+        flight.get(1L, this::load).block();
+        flight.get(1L, this::load).block();
+
+        assertThat(remoteCalls).hasValue(2);
+    }
+
+    @Test
+    void doesNotReuseErrorsOrEmptyResults() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("student", Duration.ofMinutes(1), meterRegistry);
+        Function<Long, Mono<String>> failing = id -> {
+            remoteCalls.incrementAndGet();
+            return Mono.error(new IllegalStateException("down"));
+        };
+        Function<Long, Mono<String>> empty = id -> {
+            remoteCalls.incrementAndGet();
+            return Mono.empty();
+        };
+
+        assertThatThrownBy(() -> flight.get(1L, failing).block()).hasMessage("down");
+        assertThat(flight.get(1L, empty).block()).isNull();
+        assertThat(flight.get(1L, this::load).block()).isEqualTo("student-1");
+        assertThat(remoteCalls).hasValue(3);
+    }
+
+    private Mono<String> load(Long id) {
+        return Mono.fromSupplier(() -> {
+            remoteCalls.incrementAndGet();
+            return "student-" + id;
+        });
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("enrollment.lookup.calls").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,97 @@
+package com.studentmanagement.enrollment.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Bulkhead bulkhead = new Bulkhead("course-service", 1, meterRegistry);
+    private final ClientRequest request =
+            ClientRequest.create(HttpMethod.GET, URI.create("http://course-service/courses/1")).build();
+
+    @Test
+    void holdsTheSlotUntilTheBodyIsRead() {
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        ClientResponse response = bulkhead.filter(request, respondWith(body.asFlux())).block();
+
+        // Headers are in, but the body is still streaming
+        assertThat(active()).isEqualTo(1);
+        assertThatThrownBy(() -> bulkhead.filter(request, respondWith(Flux.empty())).block())
+                .isInstanceOf(Bulkhead.BulkheadFullException.class);
+
+        StringBuilder read = new StringBuilder();
+        response.bodyToMono(String.class).subscribe(read::append);
+        body.tryEmitNext(buffer("{\"id\":1}"));
+        assertThat(active()).isEqualTo(1);
+        body.tryEmitComplete();
+
+        assertThat(read).hasToString("{\"id\":1}");
+        assertThat(active()).isZero();
+        assertThat(bulkhead.filter(request, respondWith(Flux.empty())).block()).isNotNull();
+    }
+
+    @Test
+    void releasesTheSlotWhenTheBodyIsDiscarded() {
+        ClientResponse response = bulkhead.filter(request, respondWith(Flux.just(buffer("ignored")))).block();
+
+        response.releaseBody().block();
+
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    void releasesTheSlotWhenTheCallFails() {
+        ExchangeFunction failing = r -> Mono.error(new IllegalStateException("connection refused"));
+
+        assertThatThrownBy(() -> bulkhead.filter(request, failing).block()).hasMessage("connection refused");
+
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    void releasesTheSlotWhenTheCallerCancels() {
+        bulkhead.filter(request, r -> Mono.never()).subscribe().dispose();
+
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    void countsRejectedCalls() {
+        bulkhead.filter(request, r -> Mono.never()).subscribe();
+
+        assertThatThrownBy(() -> bulkhead.filter(request, respondWith(Flux.empty())).block())
+                .isInstanceOf(Bulkhead.BulkheadFullException.class)
+                .hasMessageContaining("course-service");
+        assertThat(meterRegistry.get("http.client.bulkhead.rejected").counter().count()).isEqualTo(1);
+        assertThat(active()).isEqualTo(1);
+    }
+
+    private static ExchangeFunction respondWith(Flux<DataBuffer> body) {
+        return r -> Mono.just(ClientResponse.create(HttpStatus.OK).body(body).build());
+    }
+
+    private static DataBuffer buffer(String content) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double active() {
+        return meterRegistry.get("http.client.bulkhead.active").gauge().value();
+    }
+}
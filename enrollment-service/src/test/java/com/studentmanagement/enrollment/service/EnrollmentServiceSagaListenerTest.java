@@ -0,0 +1,173 @@
+package com.studentmanagement.enrollment.service;
+
+import com.studentmanagement.enrollment.client.CourseClient;
+import com.studentmanagement.enrollment.client.StudentClient;
+import com.studentmanagement.enrollment.entity.Enrollment;
+import com.studentmanagement.enrollment.event.EnrollmentEvent;
+import com.studentmanagement.enrollment.event.EnrollmentInitiatedEvent;
+import com.studentmanagement.enrollment.kafka.EnrollmentProducer;
+import com.studentmanagement.enrollment.progress.SagaProgressHub;
+import com.studentmanagement.enrollment.projection.CourseProjection;
+import com.studentmanagement.enrollment.projection.StudentProjection;
+import com.studentmanagement.enrollment.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EnrollmentServiceSagaListenerTest {
+
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private final EnrollmentProducer enrollmentProducer = mock(EnrollmentProducer.class);
+    private final StudentProjection studentProjection = mock(StudentProjection.class);
+    private final CourseProjection courseProjection = mock(CourseProjection.class);
+    private final SagaProgressHub sagaProgressHub = mock(SagaProgressHub.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final EnrollmentService service = new EnrollmentService(enrollmentRepository, enrollmentProducer,
+            mock(StudentClient.class), mock(CourseClient.class), studentProjection, courseProjection,
+            mock(KafkaTemplate.class), sagaProgressHub, meterRegistry);
+
+    @Test
+    void confirmsAWholeBatchWithOneUpdateAndNotifiesFromTheEnvelope() {
+        when(enrollmentRepository.updateStatusByIdIn(anyCollection(), eq("CONFIRMED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(1L, 2L));
+
+        service.handleSeatReserved(List.of(enriched(1L), enriched(2L)));
+
+        verify(enrollmentRepository).updateStatusByIdIn(eq(Set.of(1L, 2L)), eq("CONFIRMED"), any());
+        assertThat(notifications()).extracting(EnrollmentEvent::getEnrollmentId).containsExactly(1L, 2L);
+        assertThat(notifications()).allSatisfy(notification -> {
+            assertThat(notification.getStudentEmail()).isEqualTo("ada@example.com");
+            assertThat(notification.getCourseName()).isEqualTo("Compilers");
+            assertThat(notification.getStatus()).isEqualTo("ACTIVE");
+        });
+        verifyNoInteractions(studentProjection, courseProjection);
+        verify(sagaProgressHub).transitioned(List.of(1L, 2L), Enrollment.EnrollmentStatus.CONFIRMED);
+    }
+
+    @Test
+    void notifiesOnlyEnrollmentsTheUpdateMovedOutOfPending() {
+        // 2 was already CONFIRMED by an earlier delivery; 1 appears twice in the batch
+        when(enrollmentRepository.updateStatusByIdIn(anyCollection(), eq("CONFIRMED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(1L));
+
+        service.handleSeatReserved(List.of(enriched(1L), enriched(2L), enriched(1L)));
+
+        assertThat(notifications()).extracting(EnrollmentEvent::getEnrollmentId).containsExactly(1L);
+    }
+
+    @Test
+    void sendsNothingForARedeliveredBatch() {
+        when(enrollmentRepository.updateStatusByIdIn(anyCollection(), eq("CONFIRMED"), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        service.handleSeatReserved(List.of(enriched(1L)));
+
+        verify(enrollmentProducer, never()).sendEnrollmentEvents(anyList());
+    }
+
+    @Test
+    void looksUpDetailsOnlyForEventsThatPredateTheEnvelope() {
+        when(enrollmentRepository.updateStatusByIdIn(anyCollection(), eq("CONFIRMED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(studentProjection.lookupAll(anyCollection(), any()))
+                .thenReturn(Mono.just(Map.of(8L, Map.of("email", "grace@example.com", "name", "Grace"))));
+        when(courseProjection.lookupAll(anyCollection(), any())).thenReturn(Mono.just(Map.of()));
+        EnrollmentInitiatedEvent bare = EnrollmentInitiatedEvent.builder()
+                .enrollmentId(2L).studentId(8L).courseId(10L).build();
+
+        service.handleSeatReserved(List.of(enriched(1L), bare));
+
+        verify(studentProjection).lookupAll(eq(Set.of(8L)), any());
+        assertThat(notifications()).filteredOn(n -> n.getEnrollmentId() == 2L).singleElement()
+                .satisfies(notification -> {
+                    assertThat(notification.getStudentEmail()).isEqualTo("grace@example.com");
+                    assertThat(notification.getCourseName()).isEqualTo("Unknown");
+                });
+    }
+
+    @Test
+    void keepsTheConfirmationsWhenNotificationsCannotBeSent() {
+        when(enrollmentRepository.updateStatusByIdIn(anyCollection(), eq("CONFIRMED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(1L));
+        doThrow(new KafkaException("broker down")).when(enrollmentProducer).sendEnrollmentEvents(anyList());
+
+        assertThatCode(() -> service.handleSeatReserved(List.of(enriched(1L)))).doesNotThrowAnyException();
+
+        assertThat(meterRegistry.get("enrollment.notifications.failed").counter().count()).isEqualTo(1);
+        verify(sagaProgressHub).transitioned(List.of(1L), Enrollment.EnrollmentStatus.CONFIRMED);
+    }
+
+    @Test
+    void skipsUnreadableEvents() {
+        service.handleSeatReserved(Arrays.asList(null, new EnrollmentInitiatedEvent()));
+        service.handleSagaFailure(Arrays.asList(null, new EnrollmentInitiatedEvent()));
+
+        verifyNoInteractions(enrollmentRepository, enrollmentProducer, sagaProgressHub);
+    }
+
+    @Test
+    void cancelsAWholeFailureBatchWithOneUpdate() {
+        when(enrollmentRepository.updateStatusByIdIn(anyCollection(), eq("CANCELLED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(3L));
+
+        service.handleSagaFailure(List.of(enriched(3L), enriched(4L)));
+
+        verify(enrollmentRepository).updateStatusByIdIn(eq(Set.of(3L, 4L)), eq("CANCELLED"), any());
+        verify(sagaProgressHub).transitioned(List.of(3L), Enrollment.EnrollmentStatus.CANCELLED);
+    }
+
+    @Test
+    void advancesTheSagaStepByTopic() {
+        service.handlePaymentProgress(List.of(enriched(1L), enriched(2L), enriched(1L)),
+                List.of("payment-success", "payment-pending", "payment-pending"));
+
+        verify(enrollmentRepository).updateSagaStep(eq(Set.of(1L)), eq(Enrollment.EnrollmentStatus.PENDING),
+                eq(List.of(Enrollment.SagaStep.INITIATED, Enrollment.SagaStep.AWAITING_PAYMENT)),
+                eq(Enrollment.SagaStep.PAID), any());
+        // A pending event never moves a step backwards: only INITIATED becomes AWAITING_PAYMENT
+        verify(enrollmentRepository).updateSagaStep(eq(Set.of(1L, 2L)), eq(Enrollment.EnrollmentStatus.PENDING),
+                eq(List.of(Enrollment.SagaStep.INITIATED)), eq(Enrollment.SagaStep.AWAITING_PAYMENT), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EnrollmentEvent> notifications() {
+        ArgumentCaptor<List<EnrollmentEvent>> sent = ArgumentCaptor.forClass(List.class);
+        verify(enrollmentProducer).sendEnrollmentEvents(sent.capture());
+        return sent.getValue();
+    }
+
+    private static EnrollmentInitiatedEvent enriched(Long enrollmentId) {
+        return EnrollmentInitiatedEvent.builder()
+                .enrollmentId(enrollmentId)
+                .studentId(7L)
+                .courseId(9L)
+                .studentEmail("ada@example.com")
+                .studentName("Ada")
+                .courseName("Compilers")
+                .build();
+    }
+}
@@ -0,0 +1,216 @@
+package com.studentmanagement.enrollment.service;
+
+import com.studentmanagement.enrollment.client.CourseClient;
+import com.studentmanagement.enrollment.client.StudentClient;
+import com.studentmanagement.enrollment.entity.Enrollment;
+import com.studentmanagement.enrollment.event.EnrollmentInitiatedEvent;
+import com.studentmanagement.enrollment.projection.CourseProjection;
+import com.studentmanagement.enrollment.projection.StudentProjection;
+import com.studentmanagement.enrollment.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SagaRedriverTest {
+
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final StudentProjection studentProjection = mock(StudentProjection.class);
+    private final CourseProjection courseProjection = mock(CourseProjection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SagaRedriver redriver = new SagaRedriver(enrollmentRepository, kafkaTemplate, transactionTemplate,
+            mock(StudentClient.class), mock(CourseClient.class), studentProjection, courseProjection, meterRegistry);
+
+    // Enrollments the fake repository reports as stuck until a re-drive is recorded for them
+    private final List<Enrollment> stuck = new ArrayList<>();
+    private final List<Integer> queriedAttempts = new ArrayList<>();
+    private final List<LocalDateTime> queriedBefore = new ArrayList<>();
+    private final List<EnrollmentInitiatedEvent> sent = new ArrayList<>();
+    private final List<String> topics = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(redriver, "stuckAfter", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(redriver, "maxBackoff", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(redriver, "maxAttempts", 4);
+        ReflectionTestUtils.setField(redriver, "batchSize", 100);
+        ReflectionTestUtils.setField(redriver, "ratePerSecond", 100_000);
+        ReflectionTestUtils.setField(redriver, "maxPerRun", 1000);
+        ReflectionTestUtils.setField(redriver, "publishTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(redriver, "lookupTimeout", Duration.ofSeconds(5));
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(enrollmentRepository.tryRedriveLock(anyLong())).thenReturn(true);
+        when(enrollmentRepository.findStuck(eq(Enrollment.EnrollmentStatus.PENDING), anyCollection(), anyInt(),
+                any(LocalDateTime.class), any(Pageable.class))).thenAnswer(invocation -> {
+                    int attempts = invocation.getArgument(2);
+                    queriedAttempts.add(attempts);
+                    queriedBefore.add(invocation.getArgument(3));
+                    Collection<Enrollment.SagaStep> steps = invocation.getArgument(1);
+                    return stuck.stream()
+                            .filter(e -> e.getRedriveAttempts() == attempts && steps.contains(e.getSagaStep()))
+                            .limit(invocation.<Pageable>getArgument(4).getPageSize())
+                            .toList();
+                });
+        when(enrollmentRepository.recordRedrive(anyCollection(), eq(Enrollment.EnrollmentStatus.PENDING),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    stuck.removeIf(e -> ids.contains(e.getId()));
+                    return ids.size();
+                });
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            topics.add(invocation.getArgument(0));
+            sent.add(invocation.getArgument(2));
+            return CompletableFuture.completedFuture(null);
+        });
+        when(studentProjection.lookupAll(anyCollection(), any())).thenReturn(
+                Mono.just(Map.of(7L, Map.of("email", "ada@example.com", "name", "Ada"))));
+        when(courseProjection.lookupAll(anyCollection(), any())).thenReturn(
+                Mono.just(Map.of(9L, Map.of("title", "Compilers"))));
+    }
+
+    @Test
+    void resumesEachSagaFromTheStepWhereItStopped() {
+        assertThat(SagaRedriver.resumeTopic(Enrollment.SagaStep.INITIATED)).isEqualTo("enrollment-initiated");
+        assertThat(SagaRedriver.resumeTopic(Enrollment.SagaStep.PAID)).isEqualTo("payment-success");
+    }
+
+    @Test
+    void redrivesStuckSagasWithTheirDetails() {
+        stuck.add(enrollment(1L, Enrollment.SagaStep.INITIATED, 0));
+        stuck.add(enrollment(2L, Enrollment.SagaStep.PAID, 1));
+
+        redriver.sweep();
+
+        assertThat(topics).containsExactly("enrollment-initiated", "payment-success");
+        assertThat(sent).allSatisfy(event -> {
+            assertThat(event.getRedrive()).isTrue();
+            assertThat(event.getStudentEmail()).isEqualTo("ada@example.com");
+            assertThat(event.getStudentName()).isEqualTo("Ada");
+            assertThat(event.getCourseName()).isEqualTo("Compilers");
+        });
+        assertThat(stuck).isEmpty();
+        assertThat(redrives("sent")).isEqualTo(2);
+    }
+
+    @Test
+    void doublesTheIdleTimeWithEveryAttemptUpToTheMaximumBackoff() {
+        redriver.sweep();
+
+        // One range per attempt count below max-attempts, each due after stuck-after * 2^n, capped at 30m
+        assertThat(queriedAttempts).containsExactly(0, 1, 2, 3);
+        LocalDateTime now = queriedBefore.get(0).plus(Duration.ofMinutes(10));
+        assertThat(queriedBefore).extracting(before -> Duration.between(before, now))
+                .containsExactly(Duration.ofMinutes(10), Duration.ofMinutes(20), Duration.ofMinutes(30),
+                        Duration.ofMinutes(30));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        stuck.add(enrollment(1L, Enrollment.SagaStep.INITIATED, 3));
+        stuck.add(enrollment(2L, Enrollment.SagaStep.INITIATED, 4));
+
+        redriver.sweep();
+
+        // The last allowed attempt is still sent; an enrollment past it is never queried
+        assertThat(sent).extracting(EnrollmentInitiatedEvent::getEnrollmentId).containsExactly(1L);
+        assertThat(redrives("exhausted")).isEqualTo(1);
+        assertThat(stuck).extracting(Enrollment::getId).containsExactly(2L);
+    }
+
+    @Test
+    void goesOnWithoutDetailsWhenALookupFails() {
+        when(studentProjection.lookupAll(anyCollection(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("student-service down")));
+        stuck.add(enrollment(1L, Enrollment.SagaStep.INITIATED, 0));
+
+        redriver.sweep();
+
+        assertThat(sent).singleElement().satisfies(event -> {
+            assertThat(event.getStudentEmail()).isNull();
+            assertThat(event.getCourseName()).isEqualTo("Compilers");
+        });
+    }
+
+    @Test
+    void keepsTheAttemptWhenASendFails() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        stuck.add(enrollment(1L, Enrollment.SagaStep.INITIATED, 0));
+
+        redriver.sweep();
+
+        verify(enrollmentRepository, never()).recordRedrive(anyCollection(), any(), any());
+        assertThat(stuck).hasSize(1);
+    }
+
+    @Test
+    void leavesTheSweepToTheReplicaHoldingTheLock() {
+        when(enrollmentRepository.tryRedriveLock(anyLong())).thenReturn(false);
+        stuck.add(enrollment(1L, Enrollment.SagaStep.INITIATED, 0));
+
+        redriver.sweep();
+
+        assertThat(sent).isEmpty();
+        verify(enrollmentRepository, never()).recordRedrive(anyCollection(), any(), any());
+    }
+
+    @Test
+    void stopsAfterMaxPerRun() {
+        ReflectionTestUtils.setField(redriver, "batchSize", 2);
+        ReflectionTestUtils.setField(redriver, "maxPerRun", 3);
+        for (long id = 1; id <= 5; id++) {
+            stuck.add(enrollment(id, Enrollment.SagaStep.INITIATED, 0));
+        }
+
+        redriver.sweep();
+
+        assertThat(sent).extracting(EnrollmentInitiatedEvent::getEnrollmentId).containsExactly(1L, 2L, 3L);
+        assertThat(stuck).hasSize(2);
+    }
+
+    private static Enrollment enrollment(Long id, Enrollment.SagaStep step, int redriveAttempts) {
+        return Enrollment.builder()
+                .id(id)
+                .studentId(7L)
+                .courseId(9L)
+                .status(Enrollment.EnrollmentStatus.PENDING)
+                .sagaStep(step)
+                .redriveAttempts(redriveAttempts)
+                .build();
+    }
+
+    private double redrives(String outcome) {
+        return meterRegistry.get("enrollment.saga.redrives").tag("outcome", outcome).counter().count();
+    }
+}
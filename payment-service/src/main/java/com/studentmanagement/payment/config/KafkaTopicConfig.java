@@ -0,0 +1,39 @@
+package com.studentmanagement.payment.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Topics written by payment-service
+ * <p>
+ * The payment outcomes are keyed by enrollment id, so enrollment-service and
+ * course-service see the payment steps of one saga in order.
+ * </p>
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.saga.partitions:6}")
+    private int partitions;
+
+    @Value("${app.saga.replicas:1}")
+    private short replicas;
+
+    @Bean
+    public NewTopic paymentPendingTopic() {
+        return TopicBuilder.name("payment-pending").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic paymentSuccessTopic() {
+        return TopicBuilder.name("payment-success").partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic paymentFailedTopic() {
+        return TopicBuilder.name("payment-failed").partitions(partitions).replicas(replicas).build();
+    }
+}
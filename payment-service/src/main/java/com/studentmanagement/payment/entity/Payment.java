@@ -23,6 +23,7 @@ public class Payment {
     private Long enrollmentId;
     private Long studentId;
     private Long courseId;
+    private String studentEmail;
     private String studentName;
     private String courseName;
     private BigDecimal amount;
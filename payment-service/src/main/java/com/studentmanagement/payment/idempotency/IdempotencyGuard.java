@@ -0,0 +1,46 @@
+package com.studentmanagement.payment.idempotency;
+
+import com.studentmanagement.payment.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Drops redelivered 'enrollment-initiated' and 'seat-reservation-failed'
+ * events before a second payment is created or a refund is repeated.
+ * <p>
+ * The step is claimed in processed_events within the listener's transaction,
+ * so a rolled-back attempt releases its claim. Each step arrives once per
+ * enrollment, so a duplicate costs the same single INSERT as a new step and
+ * no in-memory cache is kept.
+ * </p>
+ * <p>
+ * Metric: {@code saga.events.duplicates{consumer_group, step}}.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyGuard {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Claim a saga step for this consumer group within the caller's transaction
+     *
+     * @return true if the step is new and should be processed, false if it is a duplicate
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(String consumerGroup, Long enrollmentId, String step) {
+        if (processedEventRepository.insertIfAbsent(consumerGroup, enrollmentId, step) == 1) {
+            return true;
+        }
+        log.info("[DUPLICATE] Dropping redelivered '{}' for EnrollmentID: {}", step, enrollmentId);
+        meterRegistry.counter("saga.events.duplicates", "consumer_group", consumerGroup, "step", step).increment();
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.studentmanagement.payment.repository;
+
+import com.studentmanagement.payment.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
+
+    /**
+     * Record a step unless it is already recorded
+     *
+     * @return 1 if the step was recorded now, 0 if it already was
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (consumer_group, enrollment_id, step, processed_at) "
+            + "VALUES (:consumerGroup, :enrollmentId, :step, now()) "
+            + "ON CONFLICT (consumer_group, enrollment_id, step) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("consumerGroup") String consumerGroup, @Param("enrollmentId") Long enrollmentId,
+            @Param("step") String step);
+}
@@ -2,12 +2,16 @@ package com.studentmanagement.payment.service;
 
 import com.studentmanagement.payment.entity.Payment;
 import com.studentmanagement.payment.event.EnrollmentInitiatedEvent;
+import com.studentmanagement.payment.idempotency.IdempotencyGuard;
 import com.studentmanagement.payment.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -27,12 +31,17 @@ import java.util.List;
 @Slf4j
 public class PaymentService {
 
+    private static final String CONSUMER_GROUP = "payment-group";
+
     // Repository for Payment entity persistence
     private final PaymentRepository paymentRepository;
 
     // Kafka Template for publishing 'payment-success' or 'payment-failed' events
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    // Drops redelivered saga events
+    private final IdempotencyGuard idempotencyGuard;
+
     /**
      * Get all payments
      */
@@ -88,11 +97,26 @@ public class PaymentService {
      * 4. Logically pauses the Saga until the user manually invokes
      * 'completePayment' (simulating user entering card details).
      * </p>
+     * <p>
+     * Once the payment is committed, 'payment-pending' tells the orchestrator
+     * the saga is waiting for the student. A redelivered event is dropped
+     * before a second payment is created; a re-driven one (redrive flag set)
+     * instead announces the existing payment's state again, so a saga whose
+     * announcement was lost moves on.
+     * </p>
      *
      * @param event The payload containing student_id, course_id, and enrollment_id.
      */
-    @KafkaListener(topics = "enrollment-initiated", groupId = "payment-group")
+    @KafkaListener(topics = "enrollment-initiated", groupId = CONSUMER_GROUP,
+            concurrency = "${app.saga.listener-concurrency:3}")
+    @Transactional
     public void processPayment(EnrollmentInitiatedEvent event) {
+        if (!idempotencyGuard.claim(CONSUMER_GROUP, event.getEnrollmentId(), "enrollment-initiated")) {
+            if (Boolean.TRUE.equals(event.getRedrive())) {
+                announcePaymentState(event.getEnrollmentId());
+            }
+            return;
+        }
         log.info("=========================================================================================");
         log.info("[DEBUG] Payment Service RECEIVED 'enrollment-initiated' EVENT!");
         log.info("[DEBUG] Payload: EnrollmentID={}, StudentID={}, CourseID={}",
@@ -110,6 +134,7 @@ public class PaymentService {
                 .enrollmentId(event.getEnrollmentId())
                 .studentId(event.getStudentId())
                 .courseId(event.getCourseId())
+                .studentEmail(event.getStudentEmail())
                 .studentName(event.getStudentName())
                 .courseName(event.getCourseName())
                 .amount(amount)
@@ -120,6 +145,31 @@ public class PaymentService {
         paymentRepository.save(payment);
         log.info("[PAYMENT PENDING] Payment created with status PENDING for EnrollmentID: {}. Waiting for user action.",
                 event.getEnrollmentId());
+        afterCommit(() -> kafkaTemplate.send("payment-pending", String.valueOf(event.getEnrollmentId()),
+                toSagaEvent(payment)));
+    }
+
+    /**
+     * Announce the payment of a re-driven saga again: 'payment-pending' while
+     * the student has not paid, 'payment-success' once they have
+     */
+    private void announcePaymentState(Long enrollmentId) {
+        paymentRepository.findByEnrollmentId(enrollmentId).ifPresentOrElse(payment -> {
+            String topic = switch (payment.getStatus()) {
+                case "PENDING" -> "payment-pending";
+                case "PAID" -> "payment-success";
+                default -> null;
+            };
+            if (topic == null) {
+                log.info("[REDRIVE] Payment for EnrollmentID: {} is {}; nothing to announce", enrollmentId,
+                        payment.getStatus());
+                return;
+            }
+            log.info("[REDRIVE] Re-announcing '{}' for EnrollmentID: {}", topic, enrollmentId);
+            EnrollmentInitiatedEvent event = toSagaEvent(payment);
+            event.setRedrive(true);
+            kafkaTemplate.send(topic, String.valueOf(enrollmentId), event);
+        }, () -> log.warn("[REDRIVE] No payment found for re-driven EnrollmentID: {}", enrollmentId));
     }
 
     /**
@@ -141,13 +191,11 @@ public class PaymentService {
                 "[PAYMENT COMPLETED] Manual payment successful for EnrollmentID: {}. Publishing 'payment-success' event.",
                 payment.getEnrollmentId());
 
-        // Reconstruct event to continue Saga
-        EnrollmentInitiatedEvent event = new EnrollmentInitiatedEvent();
-        event.setEnrollmentId(payment.getEnrollmentId());
-        event.setStudentId(payment.getStudentId());
-        event.setCourseId(payment.getCourseId());
+        // Reconstruct event to continue Saga, carrying the details kept from 'enrollment-initiated'
+        EnrollmentInitiatedEvent event = toSagaEvent(payment);
 
-        kafkaTemplate.send("payment-success", event);
+        // Keyed by enrollment id, so the steps of one saga stay in order on one partition
+        kafkaTemplate.send("payment-success", String.valueOf(event.getEnrollmentId()), event);
 
         return payment;
     }
@@ -161,8 +209,13 @@ public class PaymentService {
      *
      * @param event The enrollment initiated event
      */
-    @KafkaListener(topics = "seat-reservation-failed", groupId = "payment-group")
+    @KafkaListener(topics = "seat-reservation-failed", groupId = CONSUMER_GROUP,
+            concurrency = "${app.saga.listener-concurrency:3}")
+    @Transactional
     public void handleSeatReservationFailure(EnrollmentInitiatedEvent event) {
+        if (!idempotencyGuard.claim(CONSUMER_GROUP, event.getEnrollmentId(), "seat-reservation-failed")) {
+            return;
+        }
         log.warn("[SAGA ROLLBACK] Received 'seat-reservation-failed' for EnrollmentID: {}. Initiating refund...",
                 event.getEnrollmentId());
 
@@ -172,4 +225,27 @@ public class PaymentService {
             log.info("[REFUND COMPLETE] Payment refunded for EnrollmentID: {}", event.getEnrollmentId());
         }, () -> log.error("[REFUND ERROR] Payment record not found for EnrollmentID: {}", event.getEnrollmentId()));
     }
+
+    /**
+     * Saga envelope for a payment, carrying the details kept from 'enrollment-initiated'
+     */
+    private static EnrollmentInitiatedEvent toSagaEvent(Payment payment) {
+        return EnrollmentInitiatedEvent.builder()
+                .enrollmentId(payment.getEnrollmentId())
+                .studentId(payment.getStudentId())
+                .courseId(payment.getCourseId())
+                .studentEmail(payment.getStudentEmail())
+                .studentName(payment.getStudentName())
+                .courseName(payment.getCourseName())
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
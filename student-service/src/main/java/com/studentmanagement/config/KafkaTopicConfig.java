@@ -0,0 +1,24 @@
+package com.studentmanagement.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Topics written by this service
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Student events, relayed from the outbox in commit order.
+     * Broadcast listeners here and in enrollment-service assign partition 0
+     * directly, so the topic has exactly one partition.
+     */
+    @Bean
+    public NewTopic studentEventsTopic(@Value("${spring.kafka.topic.student-events}") String topic) {
+        return TopicBuilder.name(topic).partitions(1).replicas(1).build();
+    }
+}
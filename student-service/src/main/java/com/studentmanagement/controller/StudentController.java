@@ -1,14 +1,28 @@
 package com.studentmanagement.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentmanagement.dto.StudentBatchDTO;
+import com.studentmanagement.dto.StudentChangePageDTO;
 import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.dto.StudentImportResult;
+import com.studentmanagement.dto.StudentPageDTO;
+import com.studentmanagement.dto.StudentStatsDTO;
 import com.studentmanagement.student.service.StudentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -31,6 +45,7 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/welcome")
     public String welcome() {
@@ -39,12 +54,63 @@ public class StudentController {
 
     /**
      * GET /students - Get all students
+     * <p>
+     * The JSON array is written incrementally while rows are read from a
+     * database cursor, so the full list is never held in memory.
+     * </p>
+     * <p>
+     * Carries a strong ETag of the collection version. A matching
+     * If-None-Match gets 304 and no rows are read.
+     * </p>
      */
     @GetMapping
-    public ResponseEntity<List<StudentDTO>> getAllStudents() {
-        log.info("GET /students - Fetching all students");
-        List<StudentDTO> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students);
+    public ResponseEntity<StreamingResponseBody> getAllStudents(WebRequest request) {
+        String etag = etag(studentService.getCollectionVersion());
+        if (request.checkNotModified(etag)) {
+            log.info("GET /students - Not modified");
+            return null;
+        }
+        log.info("GET /students - Streaming all students");
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                studentService.streamAllStudents(student -> {
+                    try {
+                        generator.writeObject(student);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        // checkNotModified has already set the ETag header
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * GET /students/page?after={id}&size={n} - Keyset-paginated students
+     */
+    @GetMapping("/page")
+    public ResponseEntity<StudentPageDTO> getStudentsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("GET /students/page?after={}&size={} - Fetching students page", after, size);
+        return ResponseEntity.ok(studentService.getStudentsPage(after, size));
+    }
+
+    /**
+     * GET /students/changes?since={cursor}&limit={n} - Creates, updates and deletes after a cursor
+     * <p>
+     * Without "since", returns the current head cursor to start syncing from.
+     * </p>
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<StudentChangePageDTO> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("GET /students/changes?since={}&limit={} - Fetching student changes", since, limit);
+        return ResponseEntity.ok(studentService.getChanges(since, limit));
     }
 
     /**
@@ -65,6 +131,10 @@ public class StudentController {
         }
     }
 
+    /**
+     * POST /students/addMore - Add a list of students, all or nothing
+     * (400 for an invalid row, 409 for a taken email; see /students/import for partial imports)
+     */
     @PostMapping("/addMore")
     public ResponseEntity<List<?>> addMoreStudents(@Valid @RequestBody List<StudentDTO> studDTO) {
         List<StudentDTO> studentList = studentService.addAllStudents(studDTO);
@@ -72,6 +142,27 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(studentList);
     }
 
+    /**
+     * POST /students/import - Bulk import with a row-level error report
+     */
+    @PostMapping("/import")
+    public ResponseEntity<StudentImportResult> importStudents(@RequestBody List<StudentDTO> students) {
+        log.info("POST /students/import - Importing {} students", students.size());
+        return ResponseEntity.ok(studentService.importStudents(students));
+    }
+
+    /**
+     * POST /students/ingest - Stream-ingest NDJSON or CSV (with header row)
+     */
+    @PostMapping(value = "/ingest", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<StudentImportResult> ingestStudents(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        log.info("POST /students/ingest - Ingesting {} stream", csv ? "CSV" : "NDJSON");
+        return ResponseEntity.ok(studentService.ingestStudents(body, csv));
+    }
+
     /**
      * PUT /students/{id} - Update existing student
      */
@@ -95,12 +186,14 @@ public class StudentController {
     }
 
     /**
-     * GET /students/search?term={searchTerm} - Search students
+     * GET /students/search?term={searchTerm}&limit={n} - Search students
      */
     @GetMapping("/search")
-    public ResponseEntity<List<StudentDTO>> searchStudents(@RequestParam String term) {
+    public ResponseEntity<List<StudentDTO>> searchStudents(
+            @RequestParam String term,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("GET /students/search?term={} - Searching students", term);
-        List<StudentDTO> students = studentService.searchStudents(term);
+        List<StudentDTO> students = studentService.searchStudents(term, limit);
         return ResponseEntity.ok(students);
     }
 
@@ -114,6 +207,25 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
 
+    /**
+     * GET /students/city/{city} - Get students by city
+     */
+    @GetMapping("/city/{city}")
+    public ResponseEntity<List<StudentDTO>> getStudentsByCity(@PathVariable String city) {
+        log.info("GET /students/city/{} - Fetching students by city", city);
+        List<StudentDTO> students = studentService.getStudentsByCity(city);
+        return ResponseEntity.ok(students);
+    }
+
+    /**
+     * GET /students/stats - Student counts per grade and per city
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StudentStatsDTO> getStatistics() {
+        log.info("GET /students/stats - Fetching student statistics");
+        return ResponseEntity.ok(studentService.getStatistics());
+    }
+
     /**
      * GET /students/health - Health check endpoint
      */
@@ -122,13 +234,31 @@ public class StudentController {
         return ResponseEntity.ok("Student Service is running!");
     }
 
+    /**
+     * GET /students/batch?ids=1,2,3 - Get many students in one call
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<StudentBatchDTO> getStudentsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /students/batch - Fetching {} students by id", ids.size());
+        return ResponseEntity.ok(studentService.getStudentsByIds(ids));
+    }
+
     /**
      * GET /students/{id} - Get student by ID
+     * <p>
+     * Carries a strong ETag of the row version. The version comes from the
+     * student cache when present, so a matching If-None-Match is answered
+     * with 304 (and no body is serialized) without touching the database.
+     * </p>
      */
     @GetMapping("/{id}")
     public ResponseEntity<StudentDTO> getStudentById(@PathVariable Long id) {
         log.info("GET /students/{} - Fetching student by id", id);
         StudentDTO student = studentService.getStudentById(id);
-        return ResponseEntity.ok(student);
+        return ResponseEntity.ok().eTag(etag(student.getVersion())).body(student);
+    }
+
+    private static String etag(Object version) {
+        return "\"" + version + "\"";
     }
 }
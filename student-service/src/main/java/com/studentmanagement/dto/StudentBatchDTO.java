@@ -0,0 +1,20 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a multi-id student lookup.
+ * Found students are keyed by id; ids with no student are listed in missing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentBatchDTO {
+    private Map<Long, StudentDTO> students;
+    private List<Long> missing;
+}
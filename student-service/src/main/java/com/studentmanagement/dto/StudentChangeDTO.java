@@ -0,0 +1,27 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the student change feed.
+ * student holds the current state for CREATED and UPDATED entries; it is null
+ * for DELETED entries (tombstones) and for students deleted later in the feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChangeDTO {
+    private Long cursor;
+    private Long studentId;
+    private String type;
+    private LocalDateTime changedAt;
+    private StudentDTO student;
+
+    public StudentChangeDTO(Long cursor, Long studentId, String type, LocalDateTime changedAt) {
+        this(cursor, studentId, type, changedAt, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the student change feed.
+ * Pass nextCursor back as the "since" parameter to fetch the following changes.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentChangePageDTO {
+    private List<StudentChangeDTO> changes;
+    private int size;
+    private Long nextCursor;
+    private boolean hasMore;
+}
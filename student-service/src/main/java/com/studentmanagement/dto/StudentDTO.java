@@ -40,4 +40,7 @@ public class StudentDTO {
     @NotBlank(message = "Grade is required")
     @Pattern(regexp = "^[A-F][+-]?$", message = "Grade must be valid (A-F with optional +/-)")
     private String grade;
+
+    // Row version, ignored on input
+    private Long version;
 }
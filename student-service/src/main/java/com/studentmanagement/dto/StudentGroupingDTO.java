@@ -0,0 +1,17 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields a student is counted by in the statistics
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentGroupingDTO {
+    private Long id;
+    private String grade;
+    private String city;
+}
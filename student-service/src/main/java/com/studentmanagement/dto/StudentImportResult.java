@@ -0,0 +1,32 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk student import.
+ * Row numbers are 1-based positions in the submitted payload.
+ */
+@Data
+@NoArgsConstructor
+public class StudentImportResult {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private long chunks;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long row;
+        private String email;
+        private String message;
+    }
+}
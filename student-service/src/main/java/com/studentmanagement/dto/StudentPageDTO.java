@@ -0,0 +1,23 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of students.
+ * Pass nextCursor back as the "after" parameter to fetch the following page.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentPageDTO {
+    private List<StudentDTO> content;
+    private int size;
+    private Long nextCursor;
+    private boolean hasMore;
+}
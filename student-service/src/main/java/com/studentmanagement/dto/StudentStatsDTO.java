@@ -0,0 +1,23 @@
+package com.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Student counts per grade and per city
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentStatsDTO {
+    private long total;
+    private Map<String, Long> byGrade;
+    private Map<String, Long> byCity;
+    private LocalDateTime lastReconciledAt;
+}
@@ -11,6 +11,7 @@ public class StudentEvent {
     private String eventType; // CREATED, UPDATED, DELETED
     private Long studentId;
     private String studentEmail;
+    private String studentName;
     private String timestamp;
 
 }
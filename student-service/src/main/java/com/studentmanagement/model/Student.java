@@ -13,12 +13,18 @@ import java.time.LocalDate;
  * Student Entity Model
  */
 @Entity
-@Table(name = "students")
+@Table(name = "students", uniqueConstraints = @UniqueConstraint(name = Student.EMAIL_CONSTRAINT,
+        columnNames = "email"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Student {
 
+    /**
+     * Name of the unique constraint on students.email
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_students_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,7 +36,7 @@ public class Student {
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @NotBlank(message = "Contact is required")
@@ -58,6 +64,11 @@ public class Student {
     @Column(name = "updated_at")
     private LocalDate updatedAt;
 
+    // Incremented on every update; backs the ETag of the student resource
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDate.now();
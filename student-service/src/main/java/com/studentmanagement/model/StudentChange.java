@@ -0,0 +1,45 @@
+package com.studentmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Student Change Log Entry
+ * <p>
+ * One row per create, update or delete of a student, written in the same
+ * transaction as the change. The change-feed cursor is {@code seq}, assigned
+ * after commit by
+ * {@link com.studentmanagement.student.changes.StudentChangeSequencer} in the
+ * order the rows become visible, so it never skips a late commit. Rows wait
+ * with a null seq until then. Deletes stay in the log as tombstones.
+ * </p>
+ */
+@Entity
+@Table(name = "student_changes", indexes = @Index(name = "idx_student_changes_seq", columnList = "seq",
+        unique = true))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "change_type", nullable = false)
+    private String changeType; // CREATED, UPDATED, DELETED
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Change-feed cursor; null until sequenced
+    @Column(name = "seq")
+    private Long seq;
+}
@@ -0,0 +1,42 @@
+package com.studentmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Transactional Outbox Entry
+ * <p>
+ * A student lifecycle event waiting to be relayed to Kafka. Rows are written
+ * in the same transaction as the student change they describe and deleted by
+ * the relay once the broker has acknowledged them. The identity id gives the
+ * relay order.
+ * </p>
+ */
+@Entity
+@Table(name = "student_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType; // CREATED, UPDATED, DELETED
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "student_email")
+    private String studentEmail;
+
+    @Column(name = "student_name")
+    private String studentName;
+
+    @Column(name = "event_timestamp", nullable = false)
+    private String timestamp;
+}
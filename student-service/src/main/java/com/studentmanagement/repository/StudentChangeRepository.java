@@ -0,0 +1,57 @@
+package com.studentmanagement.repository;
+
+import com.studentmanagement.dto.StudentChangeDTO;
+import com.studentmanagement.model.StudentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Student Change Repository
+ * Provides access to the student change log behind the change feed
+ */
+@Repository
+public interface StudentChangeRepository extends JpaRepository<StudentChange, Long> {
+
+    /**
+     * Sequenced changes after a cursor, oldest first; seeks on idx_student_changes_seq
+     */
+    @Query("SELECT new com.studentmanagement.dto.StudentChangeDTO(c.seq, c.studentId, c.changeType, c.changedAt) "
+            + "FROM StudentChange c WHERE c.seq > :after ORDER BY c.seq ASC")
+    List<StudentChangeDTO> findChangesAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Cursor of the newest change, or 0 when the log is empty
+     */
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM StudentChange c")
+    long findHeadCursor();
+
+    /**
+     * Try to take the transaction-scoped sequencer lock so only one replica assigns cursors
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean trySequencerLock(@Param("key") long key);
+
+    /**
+     * Give the oldest committed, unsequenced changes the next cursors, in id order
+     * <p>
+     * Cursors continue after the highest one handed out. GREATEST(id, ...) keeps
+     * a cursor at or above the row's id, so rows logged before cursors were
+     * sequenced keep their id as cursor and old client cursors stay valid.
+     * </p>
+     *
+     * @return The number of changes sequenced
+     */
+    @Modifying
+    @Query(value = "UPDATE student_changes c SET seq = n.seq "
+            + "FROM (SELECT id, GREATEST(id, (SELECT COALESCE(MAX(seq), 0) FROM student_changes) "
+            + "+ ROW_NUMBER() OVER (ORDER BY id)) AS seq "
+            + "FROM student_changes WHERE seq IS NULL ORDER BY id LIMIT :limit) n "
+            + "WHERE c.id = n.id", nativeQuery = true)
+    int sequencePending(@Param("limit") int limit);
+}
@@ -0,0 +1,30 @@
+package com.studentmanagement.repository;
+
+import com.studentmanagement.model.StudentOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Student Outbox Repository
+ * Provides access to pending student lifecycle events
+ */
+@Repository
+public interface StudentOutboxRepository extends JpaRepository<StudentOutboxEvent, Long> {
+
+    /**
+     * Oldest pending events first
+     */
+    @Query("SELECT e FROM StudentOutboxEvent e ORDER BY e.id ASC")
+    List<StudentOutboxEvent> findOldest(Pageable pageable);
+
+    /**
+     * Try to take the transaction-scoped relay lock so only one replica relays at a time
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(@Param("key") long key);
+}
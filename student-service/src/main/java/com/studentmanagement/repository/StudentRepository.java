@@ -1,21 +1,58 @@
 package com.studentmanagement.repository;
 
+import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.dto.StudentGroupingDTO;
 import com.studentmanagement.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Student Repository Interface
- * Provides data access methods for Student entity
+ * Provides data access methods for Student entity.
+ * Read-only list queries select straight into StudentDTO so no managed
+ * entities (and no dirty-checking snapshots) are created.
  */
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
+    /**
+     * Constructor expression shared by the DTO projection queries
+     */
+    String SELECT_DTO = "SELECT new com.studentmanagement.dto.StudentDTO("
+            + "s.id, s.name, s.email, s.contact, s.city, s.enrollmentDate, s.grade, s.version) FROM Student s";
+
+    /**
+     * Version of the whole students collection as "count-maxId-versionSum".
+     * Ids are never reused and versions only grow, so any insert, update or
+     * delete changes at least one of the three parts.
+     */
+    @Query("SELECT CONCAT(CAST(COUNT(s) AS String), '-', CAST(COALESCE(MAX(s.id), 0) AS String), '-', "
+            + "CAST(COALESCE(SUM(s.version), 0) AS String)) FROM Student s")
+    String findCollectionVersion();
+
+    /**
+     * Find one student as a DTO
+     */
+    @Query(SELECT_DTO + " WHERE s.id = :id")
+    Optional<StudentDTO> findDtoById(@Param("id") Long id);
+
+    /**
+     * Find many students as DTOs with a single IN query
+     */
+    @Query(SELECT_DTO + " WHERE s.id IN :ids")
+    List<StudentDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Find student by email
      */
@@ -30,24 +67,76 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     /**
      * Find students by grade
      */
-    List<Student> findByGrade(String grade);
+    @Query(SELECT_DTO + " WHERE s.grade = :grade ORDER BY s.id ASC")
+    List<StudentDTO> findByGrade(@Param("grade") String grade);
 
     /**
      * Find students by city
      */
-    List<Student> findByCity(String city);
+    @Query(SELECT_DTO + " WHERE s.city = :city ORDER BY s.id ASC")
+    List<StudentDTO> findByCity(@Param("city") String city);
+
+    /**
+     * All students as DTOs
+     */
+    @Query(SELECT_DTO + " ORDER BY s.id ASC")
+    List<StudentDTO> findAllDtos();
+
+    /**
+     * Stream the grade and city of every student over a forward-only JDBC cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.studentmanagement.dto.StudentGroupingDTO(s.id, s.grade, s.city) FROM Student s")
+    Stream<StudentGroupingDTO> streamAllGroupings();
 
     /**
      * Check if email exists
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Stream every registered email (used to seed the email filter)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.email FROM Student s")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Return which of the given emails are already registered
+     */
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     /**
      * Search students by multiple fields
      */
-    @Query("SELECT s FROM Student s WHERE " +
+    @Query(SELECT_DTO + " WHERE " +
            "LOWER(s.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(s.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(s.city) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Student> searchStudents(@Param("searchTerm") String searchTerm);
+    List<StudentDTO> searchStudents(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Keyset page: students with an id greater than the cursor, in id order
+     */
+    @Query(SELECT_DTO + " WHERE s.id > :afterId ORDER BY s.id ASC")
+    List<StudentDTO> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Stream all students in id order over a forward-only JDBC cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_DTO + " ORDER BY s.id ASC")
+    Stream<StudentDTO> streamAllOrderById();
 }
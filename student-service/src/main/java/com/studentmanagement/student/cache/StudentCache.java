@@ -0,0 +1,128 @@
+package com.studentmanagement.student.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.event.StudentEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of students by id, plus the version of the whole
+ * students collection.
+ * <p>
+ * Bounded by size and time-to-live. The local replica invalidates entries
+ * after its own updates and deletes commit. Every replica also reads the
+ * whole student-events topic without a consumer group, so UPDATED and DELETED
+ * events written by any replica evict the entry everywhere. The TTL bounds
+ * staleness if an invalidation is ever missed.
+ * </p>
+ * <p>
+ * The collection version is dropped after every local write and on every
+ * student event from any replica, and also expires after the TTL.
+ * </p>
+ * <p>
+ * Hit, miss, eviction and size metrics are registered under the cache name
+ * {@code students} (see /actuator/metrics/cache.gets).
+ * </p>
+ */
+@Component
+@Slf4j
+public class StudentCache {
+
+    private final Cache<Long, StudentDTO> cache;
+    private final long ttlMillis;
+
+    // Bumped on every invalidation so a version computed before a write is never stored after it
+    private final AtomicLong collectionGeneration = new AtomicLong();
+    private volatile CollectionVersion collectionVersion;
+
+    public StudentCache(MeterRegistry meterRegistry,
+            @Value("${app.students.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.students.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "students");
+    }
+
+    /**
+     * Return the cached student, loading and caching it on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     */
+    public StudentDTO get(Long id, Function<Long, StudentDTO> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Return the cached student, or null if it is not cached
+     */
+    public StudentDTO getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Remove a student from this replica's cache
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Return the cached collection version, computing and caching it if unknown
+     */
+    public String getCollectionVersion(Supplier<String> loader) {
+        CollectionVersion current = collectionVersion;
+        long now = System.currentTimeMillis();
+        if (current != null && current.generation() == collectionGeneration.get() && current.expiresAt() > now) {
+            return current.value();
+        }
+        long generation = collectionGeneration.get();
+        String value = loader.get();
+        if (collectionGeneration.get() == generation) {
+            collectionVersion = new CollectionVersion(value, generation, now + ttlMillis);
+        }
+        return value;
+    }
+
+    /**
+     * Forget the collection version after a create, update or delete
+     */
+    public void invalidateCollectionVersion() {
+        collectionGeneration.incrementAndGet();
+        collectionVersion = null;
+    }
+
+    /**
+     * Cross-replica invalidation.
+     * Groupless, so every replica gets its own copy of each event.
+     */
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${spring.kafka.topic.student-events}",
+            partitions = "0"), containerFactory = "broadcastListenerContainerFactory")
+    public void onStudentEvent(StudentEvent event) {
+        invalidateCollectionVersion();
+        if (event.getStudentId() == null) {
+            return;
+        }
+        if ("UPDATED".equals(event.getEventType()) || "DELETED".equals(event.getEventType())) {
+            log.debug("Evicting student {} from cache after {} event", event.getStudentId(), event.getEventType());
+            cache.invalidate(event.getStudentId());
+        }
+    }
+
+    private record CollectionVersion(String value, long generation, long expiresAt) {
+    }
+}
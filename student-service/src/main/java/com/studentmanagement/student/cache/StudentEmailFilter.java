@@ -0,0 +1,249 @@
+package com.studentmanagement.student.cache;
+
+import com.studentmanagement.event.StudentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scalable Bloom filter of registered student emails.
+ * <p>
+ * Lets the write path skip the {@code existsByEmail} probe when an email is
+ * definitely new. A "might contain" answer always falls back to the database,
+ * and the unique constraint on {@code students.email} remains the source of
+ * truth, so a false positive only costs the query we would have run anyway.
+ * </p>
+ * <p>
+ * The filter is a chain of fixed-size slices. When the newest slice reaches
+ * its capacity a larger one is appended with a tighter false-positive rate,
+ * so the overall rate stays below the configured target however many emails
+ * are added. Deleted or changed emails are never removed; they just keep
+ * answering "might contain".
+ * </p>
+ * <p>
+ * Local writes add their email right away. Every replica also reads the whole
+ * student-events topic without a consumer group and adds the email of every
+ * CREATED and UPDATED event, so emails registered on any replica are known
+ * everywhere.
+ * </p>
+ * <p>
+ * Until {@link #markReady()} is called after the startup seed, every check
+ * answers "might contain" so nothing skips the database.
+ * </p>
+ */
+@Component
+@Slf4j
+public class StudentEmailFilter {
+
+    // Each new slice holds GROWTH_FACTOR times more emails at TIGHTENING_RATIO times the error rate
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double firstSliceFpp;
+    private final List<Slice> slices = new ArrayList<>();
+    private volatile boolean ready;
+    private long insertions;
+
+    private final Counter definitelyNew;
+    private final Counter possibleMatch;
+    private final Counter falsePositive;
+
+    public StudentEmailFilter(MeterRegistry meterRegistry,
+            @Value("${app.students.email-filter.initial-capacity:100000}") int initialCapacity,
+            @Value("${app.students.email-filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        // The slice error rates form a geometric series, so the total stays below the target
+        this.firstSliceFpp = falsePositiveRate * (1 - TIGHTENING_RATIO);
+        this.slices.add(new Slice(initialCapacity, firstSliceFpp));
+
+        this.definitelyNew = Counter.builder("students.email.filter.checks")
+                .tag("result", "definitely_new")
+                .description("Email checks answered without a database probe")
+                .register(meterRegistry);
+        this.possibleMatch = Counter.builder("students.email.filter.checks")
+                .tag("result", "possible_match")
+                .description("Email checks that fell back to the database")
+                .register(meterRegistry);
+        this.falsePositive = Counter.builder("students.email.filter.false.positives")
+                .description("Database probes that found the email free after a possible match")
+                .register(meterRegistry);
+        Gauge.builder("students.email.filter.insertions", this, StudentEmailFilter::getInsertions)
+                .register(meterRegistry);
+        Gauge.builder("students.email.filter.bits", this, StudentEmailFilter::getBitCount)
+                .baseUnit("bits")
+                .register(meterRegistry);
+        Gauge.builder("students.email.filter.slices", this, StudentEmailFilter::getSliceCount)
+                .register(meterRegistry);
+        Gauge.builder("students.email.filter.expected.fpp", this, StudentEmailFilter::estimatedFalsePositiveRate)
+                .description("Estimated false-positive probability at the current fill level")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record an email as registered
+     */
+    public synchronized void add(String email) {
+        if (email == null) {
+            return;
+        }
+        long[] hashes = hash(email);
+        if (contains(hashes)) {
+            return;
+        }
+        Slice current = slices.get(slices.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Slice(current.capacity * GROWTH_FACTOR,
+                    firstSliceFpp * Math.pow(TIGHTENING_RATIO, slices.size()));
+            slices.add(current);
+            log.info("Email filter grew to {} slices (newest capacity {})", slices.size(), current.capacity);
+        }
+        current.add(hashes[0], hashes[1]);
+        insertions++;
+    }
+
+    /**
+     * Cross-replica updates.
+     * Groupless, so every replica gets its own copy of each event.
+     */
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${spring.kafka.topic.student-events}",
+            partitions = "0"), containerFactory = "broadcastListenerContainerFactory")
+    public void onStudentEvent(StudentEvent event) {
+        if ("CREATED".equals(event.getEventType()) || "UPDATED".equals(event.getEventType())) {
+            add(event.getStudentEmail());
+        }
+    }
+
+    /**
+     * Whether the email is certainly not registered, so the database probe can be skipped
+     */
+    public boolean isDefinitelyNew(String email) {
+        if (!ready || email == null) {
+            return false;
+        }
+        boolean mightContain;
+        synchronized (this) {
+            mightContain = contains(hash(email));
+        }
+        (mightContain ? possibleMatch : definitelyNew).increment();
+        return !mightContain;
+    }
+
+    /**
+     * Record that a possible match turned out to be free in the database
+     */
+    public void recordFalsePositive() {
+        if (ready) {
+            falsePositive.increment();
+        }
+    }
+
+    /**
+     * Start answering checks; call once every existing email has been added
+     */
+    public void markReady() {
+        ready = true;
+        log.info("Email filter ready: {} emails in {} slices ({} bits)", getInsertions(), getSliceCount(),
+                getBitCount());
+    }
+
+    public synchronized long getInsertions() {
+        return insertions;
+    }
+
+    public synchronized long getBitCount() {
+        return slices.stream().mapToLong(slice -> slice.numBits).sum();
+    }
+
+    public synchronized int getSliceCount() {
+        return slices.size();
+    }
+
+    /**
+     * Probability that an unregistered email is reported as a possible match
+     */
+    public synchronized double estimatedFalsePositiveRate() {
+        double allMiss = 1.0;
+        for (Slice slice : slices) {
+            allMiss *= 1 - slice.falsePositiveRate();
+        }
+        return 1 - allMiss;
+    }
+
+    private boolean contains(long[] hashes) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(hashes[0], hashes[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Two 64-bit hashes for double hashing: FNV-1a, and a finalizer-mixed variant of it
+     */
+    private static long[] hash(String email) {
+        long h1 = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            h1 ^= b;
+            h1 *= 0x100000001b3L;
+        }
+        long h2 = h1 ^ 0x9E3779B97F4A7C15L;
+        h2 = (h2 ^ (h2 >>> 33)) * 0xff51afd7ed558ccdL;
+        h2 = (h2 ^ (h2 >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h2 ^= h2 >>> 33;
+        return new long[] { h1, h2 | 1 };
+    }
+
+    /**
+     * One fixed-size Bloom filter sized for a capacity and error rate
+     */
+    private static final class Slice {
+        private final int capacity;
+        private final int numBits;
+        private final int numHashes;
+        private final long[] bits;
+        private int count;
+
+        Slice(int capacity, double fpp) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.numBits = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 64);
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+            this.bits = new long[(numBits + 63) / 64];
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < numHashes; i++) {
+                int index = index(h1, h2, i);
+                bits[index >>> 6] |= 1L << index;
+            }
+            count++;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < numHashes; i++) {
+                int index = index(h1, h2, i);
+                if ((bits[index >>> 6] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double falsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) numHashes * count / numBits), numHashes);
+        }
+
+        private int index(long h1, long h2, int i) {
+            return (int) Math.floorMod(h1 + i * h2, (long) numBits);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.studentmanagement.student.changes;
+
+import com.studentmanagement.model.StudentChange;
+import com.studentmanagement.repository.StudentChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writer for the student change log.
+ * <p>
+ * Writers take no lock: rows are inserted without a cursor in the caller's
+ * transaction, and {@link StudentChangeSequencer} numbers them once they are
+ * committed. Student writes on different replicas therefore never wait for
+ * each other here.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentChangeLog {
+
+    private static final String INSERT_SQL = "INSERT INTO student_changes "
+            + "(student_id, change_type, changed_at) VALUES (?, ?, ?)";
+
+    private final StudentChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record one change in the current transaction
+     */
+    public void record(String changeType, Long studentId) {
+        changeRepository.save(new StudentChange(null, studentId, changeType, LocalDateTime.now(), null));
+    }
+
+    /**
+     * Record the same change for many students with one JDBC batch
+     */
+    public void recordAll(String changeType, List<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, studentIds, studentIds.size(), (ps, studentId) -> {
+            ps.setLong(1, studentId);
+            ps.setString(2, changeType);
+            ps.setTimestamp(3, now);
+        });
+        log.debug("Recorded {} {} changes", studentIds.size(), changeType);
+    }
+}
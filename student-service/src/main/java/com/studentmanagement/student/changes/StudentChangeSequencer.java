@@ -0,0 +1,57 @@
+package com.studentmanagement.student.changes;
+
+import com.studentmanagement.repository.StudentChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Student Change Sequencer
+ * <p>
+ * Assigns change-feed cursors. Identity ids are handed out at insert time but
+ * transactions commit in any order, so an id cannot serve as a cursor without
+ * making every writer wait for the others. Instead, change rows are written
+ * without a cursor, and this sequencer numbers the committed ones in batches.
+ * A transaction-scoped advisory lock makes it the only writer of cursors
+ * across replicas, so a cursor becomes visible only after every smaller one.
+ * A change that commits late is numbered after those already handed out
+ * and is never skipped by a reader.
+ * </p>
+ * <p>
+ * Changes appear in the feed up to one poll interval after they commit.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentChangeSequencer {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long SEQUENCER_LOCK_KEY = 7_300_118L;
+
+    private final StudentChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.students.changes.sequence-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Sequence committed changes, batch after batch, until none are left
+     */
+    @Scheduled(fixedDelayString = "${app.students.changes.sequence-interval-ms:200}")
+    public void sequence() {
+        try {
+            Integer sequenced;
+            do {
+                sequenced = transactionTemplate.execute(status -> changeRepository.trySequencerLock(SEQUENCER_LOCK_KEY)
+                        ? changeRepository.sequencePending(batchSize)
+                        : 0);
+            } while (sequenced != null && sequenced == batchSize);
+        } catch (Exception e) {
+            log.error("Error sequencing student changes", e);
+        }
+    }
+}
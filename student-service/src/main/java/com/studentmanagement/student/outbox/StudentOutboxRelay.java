@@ -0,0 +1,128 @@
+package com.studentmanagement.student.outbox;
+
+import com.studentmanagement.event.StudentEvent;
+import com.studentmanagement.model.StudentOutboxEvent;
+import com.studentmanagement.repository.StudentOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Student Outbox Relay
+ * <p>
+ * Drains the {@code student_outbox} table to the student-events topic in id
+ * order. Each batch is sent asynchronously, the acknowledgements are awaited
+ * together, and only the acknowledged prefix of the batch is deleted. Anything
+ * after the first failure stays in the table and is retried on the next run,
+ * so events keep their order and are delivered at least once.
+ * </p>
+ * <p>
+ * A transaction-scoped advisory lock ensures only one replica relays at a
+ * time. Because pending events live in the database, a crash simply resumes
+ * from the oldest unacknowledged row.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentOutboxRelay {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long RELAY_LOCK_KEY = 7_300_117L;
+
+    private final StudentOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.kafka.topic.student-events}")
+    private String topicName;
+
+    @Value("${app.students.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.students.outbox.ack-timeout-seconds:30}")
+    private long ackTimeoutSeconds;
+
+    /**
+     * Relay pending events, batch after batch, until the outbox is empty or a send fails
+     */
+    @Scheduled(fixedDelayString = "${app.students.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Error relaying student outbox", e);
+        }
+    }
+
+    private int relayBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+        List<StudentOutboxEvent> batch = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (StudentOutboxEvent entry : batch) {
+            try {
+                StudentEvent event = new StudentEvent(entry.getEventType(), entry.getStudentId(),
+                        entry.getStudentEmail(), entry.getStudentName(), entry.getTimestamp());
+                String key = entry.getStudentId() != null ? entry.getStudentId().toString() : null;
+                sends.add(kafkaTemplate.send(topicName, key, event));
+            } catch (Exception e) {
+                log.error("Error sending outbox event {}", entry.getId(), e);
+                break;
+            }
+        }
+
+        int acknowledged = awaitAcknowledgedPrefix(sends);
+        if (acknowledged > 0) {
+            outboxRepository.deleteAllByIdInBatch(batch.subList(0, acknowledged).stream()
+                    .map(StudentOutboxEvent::getId)
+                    .toList());
+            log.debug("Relayed {} student events", acknowledged);
+        }
+        if (acknowledged < batch.size()) {
+            log.warn("Relayed {} of {} student events; the rest will be retried", acknowledged, batch.size());
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Wait for acknowledgements in send order and return how many succeeded before the first failure
+     */
+    private int awaitAcknowledgedPrefix(List<CompletableFuture<?>> sends) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ackTimeoutSeconds);
+        int acknowledged = 0;
+        for (CompletableFuture<?> send : sends) {
+            try {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Student event was not acknowledged", e);
+                break;
+            }
+        }
+        return acknowledged;
+    }
+}
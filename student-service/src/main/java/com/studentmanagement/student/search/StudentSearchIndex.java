@@ -0,0 +1,312 @@
+package com.studentmanagement.student.search;
+
+import com.studentmanagement.dto.StudentDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over student name, email and city.
+ * <p>
+ * Serves the same substring semantics as
+ * {@link com.studentmanagement.repository.StudentRepository#searchStudents(String)}
+ * without a table scan: every field is split into overlapping three-character
+ * grams, and each gram maps to the ids of the students containing it. A query
+ * intersects the posting sets of its own grams and then verifies the remaining
+ * candidates with a plain substring check, so results are exact.
+ * </p>
+ * <p>
+ * The index is built once at startup by
+ * {@link com.studentmanagement.student.service.StudentService} and then kept
+ * current from the same create/update/delete paths that publish student
+ * events. Writes made on other replicas arrive through those events (see
+ * {@link StudentSearchIndexListener}). Until the first build completes,
+ * {@link #isReady()} is false and the service falls back to the database query.
+ * </p>
+ */
+@Component
+@Slf4j
+public class StudentSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.entry().name())
+            .thenComparing(hit -> hit.entry().student().getId());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All fields below are guarded by lock
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private List<Runnable> pendingDuringRebuild;
+    private boolean ready;
+
+    /**
+     * Add or replace a student in the index
+     */
+    public void index(StudentDTO student) {
+        if (student == null || student.getId() == null) {
+            return;
+        }
+        Entry entry = Entry.of(student);
+        write(() -> put(entries, postings, entry));
+    }
+
+    /**
+     * Remove a student from the index
+     */
+    public void remove(Long studentId) {
+        write(() -> delete(entries, postings, studentId));
+    }
+
+    /**
+     * Rebuild the index from scratch
+     * <p>
+     * The loader is handed a sink and must push every student into it. The new
+     * index is built off to the side and swapped in at the end; writes that
+     * arrive during the rebuild are applied to both the live index and the new
+     * one so nothing is lost.
+     * </p>
+     *
+     * @param loader Pushes every student into the supplied sink
+     */
+    public void rebuild(Consumer<Consumer<StudentDTO>> loader) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Entry> newEntries = new HashMap<>();
+        Map<String, Set<Long>> newPostings = new HashMap<>();
+        try {
+            loader.accept(student -> {
+                if (student.getId() != null) {
+                    put(newEntries, newPostings, Entry.of(student));
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Map<Long, Entry> liveEntries = entries;
+            Map<String, Set<Long>> livePostings = postings;
+            entries = newEntries;
+            postings = newPostings;
+            pendingDuringRebuild.forEach(Runnable::run);
+            pendingDuringRebuild = null;
+            ready = true;
+            log.info("Student search index built: {} students, {} grams (previously {} students, {} grams)",
+                    newEntries.size(), newPostings.size(), liveEntries.size(), livePostings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has completed its initial build
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of students currently indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search by case-insensitive substring over name, email and city
+     * <p>
+     * Results are ranked: exact and prefix matches beat inner matches, and name
+     * matches beat email and city matches. Terms shorter than three characters
+     * cannot use the gram index and are answered with an in-memory scan.
+     * </p>
+     *
+     * @param term  The search term
+     * @param limit Maximum number of results
+     * @return Matching students, best match first
+     */
+    public List<StudentDTO> search(String term, int limit) {
+        String needle = normalize(term);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = needle.length() < GRAM_LENGTH
+                    ? entries.keySet()
+                    : candidates(needle);
+
+            // Keep only the best `limit` hits in a min-heap instead of sorting every match
+            PriorityQueue<Hit> best = new PriorityQueue<>(RANKING.reversed());
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                int score = score(entry, needle);
+                if (score == 0) {
+                    continue;
+                }
+                best.offer(new Hit(entry, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            return hits.stream().map(hit -> hit.entry().student()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String needle) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        // Walk the rarest gram's postings and keep ids present in every other one
+        List<Long> result = new ArrayList<>();
+        Set<Long> smallest = lists.get(0);
+        for (Long id : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private int score(Entry entry, String needle) {
+        int score = 0;
+        score = Math.max(score, fieldScore(entry.name(), needle, 100, 60, 30));
+        score = Math.max(score, fieldScore(entry.email(), needle, 50, 40, 20));
+        score = Math.max(score, fieldScore(entry.city(), needle, 45, 25, 10));
+        return score;
+    }
+
+    private int fieldScore(String field, String needle, int exact, int prefix, int inner) {
+        if (field.equals(needle)) {
+            return exact;
+        }
+        if (field.startsWith(needle)) {
+            return prefix;
+        }
+        return field.contains(needle) ? inner : 0;
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(Map<Long, Entry> entries, Map<String, Set<Long>> postings, Entry entry) {
+        Long id = entry.student().getId();
+        delete(entries, postings, id);
+        entries.put(id, entry);
+        for (String gram : entry.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void delete(Map<Long, Entry> entries, Map<String, Set<Long>> postings, Long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : previous.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Indexed student with its normalized fields
+     */
+    private record Entry(StudentDTO student, String name, String email, String city) {
+
+        static Entry of(StudentDTO student) {
+            return new Entry(student, normalize(student.getName()), normalize(student.getEmail()),
+                    normalize(student.getCity()));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = StudentSearchIndex.grams(name);
+            grams.addAll(StudentSearchIndex.grams(email));
+            grams.addAll(StudentSearchIndex.grams(city));
+            return grams;
+        }
+    }
+
+    private record Hit(Entry entry, int score) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.studentmanagement.student.search;
+
+import com.studentmanagement.event.StudentEvent;
+import com.studentmanagement.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this replica's search index current with writes made on any replica.
+ * <p>
+ * Every replica reads the whole student-events topic without a consumer group.
+ * Events are relayed from the outbox after their transaction commits, so the
+ * student's current row is re-read and indexed, or removed if it no longer
+ * exists. Re-reading rather than trusting the event also makes late or
+ * repeated events harmless.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentSearchIndexListener {
+
+    private final StudentSearchIndex searchIndex;
+    private final StudentRepository studentRepository;
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${spring.kafka.topic.student-events}",
+            partitions = "0"), containerFactory = "broadcastListenerContainerFactory")
+    public void onStudentEvent(StudentEvent event) {
+        if (event.getStudentId() == null) {
+            return;
+        }
+        log.debug("Refreshing student {} in search index after {} event", event.getStudentId(),
+                event.getEventType());
+        studentRepository.findDtoById(event.getStudentId()).ifPresentOrElse(searchIndex::index,
+                () -> searchIndex.remove(event.getStudentId()));
+    }
+}
@@ -0,0 +1,370 @@
+package com.studentmanagement.student.service;
+
+import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.dto.StudentImportResult;
+import com.studentmanagement.exception.DuplicateResourceException;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.repository.StudentRepository;
+import com.studentmanagement.student.cache.StudentCache;
+import com.studentmanagement.student.cache.StudentEmailFilter;
+import com.studentmanagement.student.changes.StudentChangeLog;
+import com.studentmanagement.student.search.StudentSearchIndex;
+import com.studentmanagement.student.stats.StudentStatistics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk Student Import
+ * <p>
+ * Loads large sets of students in fixed-size chunks, each in its own
+ * transaction. Because {@code Student} uses IDENTITY ids, Hibernate cannot
+ * batch its INSERTs, so rows are written with a plain JDBC batch that returns
+ * the generated keys.
+ * </p>
+ * <p>
+ * For every chunk:
+ * <ul>
+ * <li>Rows are validated against the {@code Student} entity constraints.</li>
+ * <li>Duplicate emails inside the chunk, and emails already in the database
+ * (one {@code IN} query per chunk), are rejected up front.</li>
+ * <li>Surviving rows are inserted in one JDBC batch. If a concurrent writer
+ * claims an email in the meantime, the chunk is retried row by row so only
+ * the conflicting rows fail.</li>
+ * <li>CREATED events for the chunk are written to the outbox in the same
+ * transaction, also as one JDBC batch, followed by the chunk's change-log
+ * rows.</li>
+ * </ul>
+ * Earlier chunks are committed before later ones are checked, so duplicates
+ * across chunks are caught by the database check.
+ * </p>
+ * <p>
+ * {@link #insertAll(List)} uses the same JDBC batches for callers that need
+ * all rows stored in one transaction or none at all.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentBulkImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO students "
+            + "(name, email, contact, city, enrollment_date, grade, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String OUTBOX_INSERT_SQL = "INSERT INTO student_outbox "
+            + "(event_type, student_id, student_email, student_name, event_timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private final StudentRepository studentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final StudentSearchIndex searchIndex;
+    private final StudentEmailFilter emailFilter;
+    private final StudentStatistics statistics;
+    private final StudentCache studentCache;
+    private final StudentChangeLog changeLog;
+
+    // Rows per transaction / JDBC batch
+    @Value("${app.students.import.chunk-size:1000}")
+    private int chunkSize;
+
+    // Row errors kept in the report; further errors are only counted
+    @Value("${app.students.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Import a list of students in chunks
+     *
+     * @param students  The rows to import
+     * @param onCreated Receives every student that was stored, with its new id
+     * @return Counts and row-level errors
+     */
+    public StudentImportResult importStudents(List<StudentDTO> students, Consumer<StudentDTO> onCreated) {
+        StudentImportResult result = new StudentImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < students.size(); i++) {
+            if (students.get(i) == null) {
+                result.setTotalRows(result.getTotalRows() + 1);
+                recordError(result, i + 1, null, "Unparseable row: null");
+                continue;
+            }
+            chunk.add(new ImportRow(i + 1, students.get(i)));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, result).forEach(onCreated);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result).forEach(onCreated);
+        }
+        log.info("Bulk import finished: {} rows, {} imported, {} failed in {} chunks",
+                result.getTotalRows(), result.getImported(), result.getFailed(), result.getChunks());
+        return result;
+    }
+
+    /**
+     * Import one chunk in its own transaction
+     *
+     * @param chunk  The rows to import (at most one chunk's worth)
+     * @param result Report to add counts and errors to
+     * @return The students that were stored
+     */
+    public List<StudentDTO> importChunk(List<ImportRow> chunk, StudentImportResult result) {
+        result.setTotalRows(result.getTotalRows() + chunk.size());
+        result.setChunks(result.getChunks() + 1);
+
+        // Validate and drop duplicates within the chunk, keyed by email
+        Map<String, StudentDTO> candidates = new LinkedHashMap<>();
+        Map<String, Long> rowNumbers = new LinkedHashMap<>();
+        for (ImportRow importRow : chunk) {
+            StudentDTO row = importRow.student();
+            long rowNumber = importRow.rowNumber();
+            Set<ConstraintViolation<Student>> violations = validator.validate(toEntity(row));
+            if (!violations.isEmpty()) {
+                recordError(result, rowNumber, row.getEmail(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (candidates.containsKey(row.getEmail())) {
+                recordError(result, rowNumber, row.getEmail(),
+                        "Duplicate email in import (first seen at row " + rowNumbers.get(row.getEmail()) + ")");
+            } else {
+                candidates.put(row.getEmail(), row);
+                rowNumbers.put(row.getEmail(), rowNumber);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Set-based check against rows already in the database
+        Set<String> existing = new HashSet<>(studentRepository.findExistingEmails(candidates.keySet()));
+        List<StudentDTO> toInsert = new ArrayList<>(candidates.size());
+        for (StudentDTO row : candidates.values()) {
+            if (existing.contains(row.getEmail())) {
+                recordError(result, rowNumbers.get(row.getEmail()), row.getEmail(),
+                        "Student already exists with email: " + row.getEmail());
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return List.of();
+        }
+
+        List<StudentDTO> created;
+        try {
+            created = transactionTemplate.execute(status -> insertWithEvents(toInsert));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} rows hit a constraint violation, retrying row by row", toInsert.size());
+            created = insertIndividually(toInsert, rowNumbers, result);
+        }
+
+        result.setImported(result.getImported() + created.size());
+        applyCreated(created);
+        return created;
+    }
+
+    /**
+     * Insert every student in one transaction, or none of them
+     * <p>
+     * All rows are validated and checked for duplicate emails, within the list
+     * and against the database, before anything is written; the first problem
+     * rejects the whole list. The rows are then inserted in chunk-sized JDBC
+     * batches inside a single transaction, so an email claimed concurrently
+     * also rolls everything back.
+     * </p>
+     *
+     * @param students The rows to insert
+     * @return The stored students, with their new ids
+     * @throws IllegalArgumentException   if a row is missing or invalid
+     * @throws DuplicateResourceException if an email is repeated or already registered
+     */
+    public List<StudentDTO> insertAll(List<StudentDTO> students) {
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < students.size(); i++) {
+            StudentDTO row = students.get(i);
+            if (row == null) {
+                throw new IllegalArgumentException("Row " + (i + 1) + " is empty");
+            }
+            Set<ConstraintViolation<Student>> violations = validator.validate(toEntity(row));
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException("Row " + (i + 1) + ": " + violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            if (!emails.add(row.getEmail())) {
+                throw new DuplicateResourceException("Duplicate email in request: " + row.getEmail());
+            }
+        }
+        for (int from = 0; from < students.size(); from += chunkSize) {
+            List<String> existing = studentRepository.findExistingEmails(students
+                    .subList(from, Math.min(from + chunkSize, students.size())).stream()
+                    .map(StudentDTO::getEmail)
+                    .toList());
+            if (!existing.isEmpty()) {
+                throw new DuplicateResourceException("Student already exists with email: " + existing.get(0));
+            }
+        }
+
+        List<StudentDTO> created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                List<StudentDTO> inserted = new ArrayList<>(students.size());
+                for (int from = 0; from < students.size(); from += chunkSize) {
+                    inserted.addAll(insertWithEvents(students.subList(from,
+                            Math.min(from + chunkSize, students.size()))));
+                }
+                return inserted;
+            });
+        } catch (DuplicateKeyException e) {
+            // students.email is the only unique column besides the generated id
+            throw new DuplicateResourceException("A submitted email was registered concurrently", e);
+        }
+        applyCreated(created);
+        log.info("Inserted {} students in one transaction", created.size());
+        return created;
+    }
+
+    /**
+     * Bring the in-memory views up to date with committed inserts
+     */
+    private void applyCreated(List<StudentDTO> created) {
+        if (!created.isEmpty()) {
+            studentCache.invalidateCollectionVersion();
+        }
+        created.forEach(student -> {
+            emailFilter.add(student.getEmail());
+            searchIndex.index(student);
+            statistics.put(student.getId(), student.getGrade(), student.getCity());
+        });
+    }
+
+    private List<StudentDTO> insertIndividually(List<StudentDTO> rows, Map<String, Long> rowNumbers,
+            StudentImportResult result) {
+        List<StudentDTO> created = new ArrayList<>(rows.size());
+        for (StudentDTO row : rows) {
+            try {
+                created.addAll(transactionTemplate.execute(status -> insertWithEvents(List.of(row))));
+            } catch (DataIntegrityViolationException e) {
+                recordError(result, rowNumbers.get(row.getEmail()), row.getEmail(),
+                        "Student already exists with email: " + row.getEmail());
+            }
+        }
+        return created;
+    }
+
+    private List<StudentDTO> insertWithEvents(List<StudentDTO> rows) {
+        List<StudentDTO> created = insertBatch(rows);
+        enqueueCreatedEvents(created);
+        changeLog.recordAll("CREATED", created.stream().map(StudentDTO::getId).toList());
+        return created;
+    }
+
+    /**
+     * Insert rows with a single JDBC batch and return them with their generated ids.
+     * The version column defaults to 0.
+     */
+    private List<StudentDTO> insertBatch(List<StudentDTO> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<StudentDTO>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] { "id" })) {
+                Date today = Date.valueOf(LocalDate.now());
+                for (StudentDTO row : rows) {
+                    ps.setString(1, row.getName());
+                    ps.setString(2, row.getEmail());
+                    ps.setString(3, row.getContact());
+                    ps.setString(4, row.getCity());
+                    ps.setDate(5, Date.valueOf(row.getEnrollmentDate()));
+                    ps.setString(6, row.getGrade());
+                    ps.setDate(7, today);
+                    ps.setDate(8, today);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<StudentDTO> created = new ArrayList<>(rows.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next()) {
+                        StudentDTO source = rows.get(i++);
+                        created.add(new StudentDTO(keys.getLong(1), source.getName(), source.getEmail(),
+                                source.getContact(), source.getCity(), source.getEnrollmentDate(),
+                                source.getGrade(), 0L));
+                    }
+                }
+                if (created.size() != rows.size()) {
+                    throw new IllegalStateException("Expected " + rows.size() + " generated keys but got "
+                            + created.size());
+                }
+                return created;
+            }
+        });
+    }
+
+    /**
+     * Queue CREATED events for a chunk in the outbox with one JDBC batch
+     */
+    private void enqueueCreatedEvents(List<StudentDTO> created) {
+        String timestamp = LocalDateTime.now().toString();
+        jdbcTemplate.batchUpdate(OUTBOX_INSERT_SQL, created, created.size(), (ps, student) -> {
+            ps.setString(1, "CREATED");
+            ps.setLong(2, student.getId());
+            ps.setString(3, student.getEmail());
+            ps.setString(4, student.getName());
+            ps.setString(5, timestamp);
+        });
+    }
+
+    private Student toEntity(StudentDTO dto) {
+        Student student = new Student();
+        student.setName(dto.getName());
+        student.setEmail(dto.getEmail());
+        student.setContact(dto.getContact());
+        student.setCity(dto.getCity());
+        student.setEnrollmentDate(dto.getEnrollmentDate());
+        student.setGrade(dto.getGrade());
+        return student;
+    }
+
+    /**
+     * Record a failed row, keeping at most max-reported-errors details
+     */
+    void recordError(StudentImportResult result, long row, String email, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new StudentImportResult.RowError(row, email, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * A row to import together with its 1-based position in the source
+     */
+    public record ImportRow(long rowNumber, StudentDTO student) {
+    }
+}
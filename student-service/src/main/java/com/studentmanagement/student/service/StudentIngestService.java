@@ -0,0 +1,297 @@
+package com.studentmanagement.student.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.dto.StudentImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming Student Ingest
+ * <p>
+ * Reads NDJSON or CSV student records straight from a request body, one line
+ * at a time, and hands them to {@link StudentBulkImportService} in bounded
+ * batches. A batch is written before the next line is read, so the client is
+ * throttled by TCP flow control while the database catches up and peak heap
+ * is proportional to the batch size rather than the file size.
+ * </p>
+ * <p>
+ * Formats:
+ * <ul>
+ * <li>NDJSON: one StudentDTO JSON object per line.</li>
+ * <li>CSV: a header row naming the columns (name, email, contact, city,
+ * enrollmentDate or enrollment_date, grade), then one student per line.
+ * Fields may be double-quoted; quoted fields may not span lines.</li>
+ * </ul>
+ * Blank lines are skipped. Lines that cannot be parsed, or that are longer
+ * than max-line-length characters, are reported as row errors and do not stop
+ * the ingest; the rest of an over-long line is skipped without being kept in
+ * memory.
+ * </p>
+ */
+@Service
+@Slf4j
+public class StudentIngestService {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "contact", "city", "enrollmentdate",
+            "grade");
+
+    private final StudentBulkImportService bulkImportService;
+    private final ObjectReader studentReader;
+
+    // Rows buffered before each write
+    @Value("${app.students.ingest.batch-size:1000}")
+    private int batchSize;
+
+    // Longest accepted line, in characters; bounds the memory one line can take
+    @Value("${app.students.ingest.max-line-length:65536}")
+    private int maxLineLength;
+
+    public StudentIngestService(StudentBulkImportService bulkImportService, ObjectMapper objectMapper) {
+        this.bulkImportService = bulkImportService;
+        this.studentReader = objectMapper.readerFor(StudentDTO.class);
+    }
+
+    /**
+     * Ingest newline-delimited JSON
+     *
+     * @param body The request body
+     * @return Counts and row-level errors
+     * @throws IOException if the stream cannot be read
+     */
+    public StudentImportResult ingestNdjson(InputStream body) throws IOException {
+        return ingest(body, false);
+    }
+
+    /**
+     * Ingest CSV with a header row
+     *
+     * @param body The request body
+     * @return Counts and row-level errors
+     * @throws IOException if the stream cannot be read
+     */
+    public StudentImportResult ingestCsv(InputStream body) throws IOException {
+        return ingest(body, true);
+    }
+
+    private StudentImportResult ingest(InputStream body, boolean csv) throws IOException {
+        StudentImportResult result = new StudentImportResult();
+        List<StudentBulkImportService.ImportRow> batch = new ArrayList<>(batchSize);
+        Map<String, Integer> columns = null;
+        long rowNumber = 0;
+        long started = System.currentTimeMillis();
+
+        try (BoundedLineReader reader = new BoundedLineReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                boolean tooLong = line == BoundedLineReader.TOO_LONG;
+                if (!tooLong && line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    if (tooLong) {
+                        throw new IllegalArgumentException("CSV header is longer than " + maxLineLength
+                                + " characters");
+                    }
+                    columns = parseHeader(line);
+                    continue;
+                }
+
+                rowNumber++;
+                if (tooLong) {
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    bulkImportService.recordError(result, rowNumber, null,
+                            "Line is longer than " + maxLineLength + " characters");
+                    continue;
+                }
+                try {
+                    StudentDTO student = csv ? parseCsvRow(line, columns) : studentReader.readValue(line);
+                    if (student == null) {
+                        // A JSON 'null' line parses without error
+                        result.setTotalRows(result.getTotalRows() + 1);
+                        bulkImportService.recordError(result, rowNumber, null, "Unparseable row: null");
+                        continue;
+                    }
+                    batch.add(new StudentBulkImportService.ImportRow(rowNumber, student));
+                } catch (IOException | RuntimeException e) {
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    bulkImportService.recordError(result, rowNumber, null, "Unparseable row: " + e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, result);
+        }
+
+        log.info("Ingest finished in {} ms: {} rows, {} imported, {} failed",
+                System.currentTimeMillis() - started, result.getTotalRows(), result.getImported(),
+                result.getFailed());
+        return result;
+    }
+
+    private void flush(List<StudentBulkImportService.ImportRow> batch, StudentImportResult result) {
+        bulkImportService.importChunk(batch, result);
+        batch.clear();
+        log.info("Ingest progress: {} rows read, {} imported, {} failed",
+                result.getTotalRows(), result.getImported(), result.getFailed());
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            columns.put(name, i);
+        }
+        List<String> missing = CSV_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + missing);
+        }
+        return columns;
+    }
+
+    private StudentDTO parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        StudentDTO student = new StudentDTO();
+        student.setName(field(fields, columns, "name"));
+        student.setEmail(field(fields, columns, "email"));
+        student.setContact(field(fields, columns, "contact"));
+        student.setCity(field(fields, columns, "city"));
+        String enrollmentDate = field(fields, columns, "enrollmentdate");
+        student.setEnrollmentDate(enrollmentDate == null ? null : LocalDate.parse(enrollmentDate));
+        student.setGrade(field(fields, columns, "grade"));
+        return student;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Line reader that never holds more than max-length characters of a line
+     * <p>
+     * Recognises the same line endings as {@link java.io.BufferedReader#readLine()}.
+     * A longer line is read to its end and discarded, and {@link #TOO_LONG}
+     * is returned in its place.
+     * </p>
+     */
+    static final class BoundedLineReader implements AutoCloseable {
+
+        // Returned instead of an over-long line; compared by identity
+        static final String TOO_LONG = new String("<line too long>");
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        // A '\r' ended the previous line, so a '\n' right after it belongs to that line
+        private boolean skipLineFeed;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Next line without its terminator, {@link #TOO_LONG}, or null at the end of the stream
+         */
+        String readLine() throws IOException {
+            line.setLength(0);
+            boolean tooLong = false;
+            while (true) {
+                if (position == limit) {
+                    int read = reader.read(buffer, 0, buffer.length);
+                    if (read == -1) {
+                        if (tooLong) {
+                            return TOO_LONG;
+                        }
+                        return line.length() > 0 ? line.toString() : null;
+                    }
+                    position = 0;
+                    limit = read;
+                }
+                char c = buffer[position++];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    return tooLong ? TOO_LONG : line.toString();
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Split one CSV line, honouring double quotes and "" escapes
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -1,22 +1,51 @@
 package com.studentmanagement.student.service;
 
+import com.studentmanagement.dto.StudentBatchDTO;
+import com.studentmanagement.dto.StudentChangeDTO;
+import com.studentmanagement.dto.StudentChangePageDTO;
 import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.dto.StudentImportResult;
+import com.studentmanagement.dto.StudentPageDTO;
+import com.studentmanagement.dto.StudentStatsDTO;
 import com.studentmanagement.exception.ResourceNotFoundException;
 import com.studentmanagement.exception.DuplicateResourceException;
 import com.studentmanagement.model.Student;
+import com.studentmanagement.model.StudentOutboxEvent;
+import com.studentmanagement.repository.StudentChangeRepository;
+import com.studentmanagement.repository.StudentOutboxRepository;
 import com.studentmanagement.repository.StudentRepository;
-import com.studentmanagement.event.StudentEvent;
+import com.studentmanagement.student.cache.StudentCache;
+import com.studentmanagement.student.cache.StudentEmailFilter;
+import com.studentmanagement.student.changes.StudentChangeLog;
+import com.studentmanagement.student.search.StudentSearchIndex;
+import com.studentmanagement.student.stats.StudentStatistics;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Student Service Implementation
@@ -47,52 +76,266 @@ public class StudentService {
     // Repository for interacting with the database
     private final StudentRepository studentRepository;
 
-    // Kafka template for sending messages to Kafka topics
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    // Outbox of lifecycle events, relayed to Kafka by StudentOutboxRelay
+    private final StudentOutboxRepository outboxRepository;
 
-    // The name of the Kafka topic to publish events to, injected from
-    // application.properties/yml
-    @Value("${spring.kafka.topic.student-events}")
-    private String topicName;
+    // In-memory trigram index serving /students/search
+    private final StudentSearchIndex searchIndex;
+
+    // Chunked JDBC-batch import used by the bulk endpoints
+    private final StudentBulkImportService bulkImportService;
+
+    // Line-by-line NDJSON/CSV reader feeding the bulk importer
+    private final StudentIngestService ingestService;
+
+    // Read-through cache for getStudentById
+    private final StudentCache studentCache;
+
+    // Bloom filter that lets definitely-new emails skip the existsByEmail probe
+    private final StudentEmailFilter emailFilter;
+
+    // Per-grade and per-city counters behind /students/stats
+    private final StudentStatistics statistics;
+
+    // Ordered log of creates, updates and deletes behind /students/changes
+    private final StudentChangeLog changeLog;
+    private final StudentChangeRepository changeRepository;
+
+    // Upper bound for a single keyset page, regardless of what the client asks for
+    @Value("${app.students.page.max-size:1000}")
+    private int maxPageSize;
+
+    // Upper bound for the number of search results returned
+    @Value("${app.students.search.max-limit:500}")
+    private int maxSearchLimit;
+
+    // Upper bound for the number of ids in one batch lookup
+    @Value("${app.students.batch.max-ids:500}")
+    private int maxBatchIds;
+
+    // Upper bound for a single change-feed page
+    @Value("${app.students.changes.max-page-size:1000}")
+    private int maxChangesPageSize;
 
     /**
      * Get all students
      * <p>
-     * Retrieves a list of all students from the database and converts them to DTOs.
+     * Retrieves a list of all students from the database, selected directly
+     * into DTOs.
      * </p>
      *
      * @return List of StudentDTO objects
      */
+    @Transactional(readOnly = true)
     public List<StudentDTO> getAllStudents() {
         log.info("Fetching all students"); // Log the action
 
-        // Fetch all student entities from the repository
-        return studentRepository.findAll()
-                .stream() // Create a stream for processing
-                .map(this::convertToDTO) // Convert each Student entity to a StudentDTO
-                .collect(Collectors.toList()); // Collect the results into a List
+        // Project all students straight into DTOs
+        return studentRepository.findAllDtos();
+    }
+
+    /**
+     * Get one keyset page of students
+     * <p>
+     * Returns up to {@code size} students whose id is greater than
+     * {@code afterId}, ordered by id. Unlike offset paging, the cost of a page
+     * does not grow with its position because the query seeks on the primary
+     * key index.
+     * </p>
+     *
+     * @param afterId The last id of the previous page, or null for the first page
+     * @param size    The requested page size (clamped to 1..max-size)
+     * @return The page along with the cursor for the next one
+     */
+    @Transactional(readOnly = true)
+    public StudentPageDTO getStudentsPage(Long afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        long cursor = afterId != null ? afterId : 0L;
+        log.info("Fetching students page after id: {} (size: {})", cursor, pageSize);
+
+        // Fetch one extra row to learn whether another page exists
+        List<StudentDTO> rows = studentRepository.findPageAfter(cursor, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<StudentDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return StudentPageDTO.builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(content.isEmpty() ? null : content.get(content.size() - 1).getId())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Get changes since a cursor
+     * <p>
+     * Returns up to {@code limit} creates, updates and deletes recorded after
+     * {@code since}, oldest first, seeking on the change log's cursor index.
+     * Created and updated entries carry the student's current state, fetched
+     * with one IN query; deletes are tombstones without a student.
+     * </p>
+     * <p>
+     * Without a cursor, an empty page holding the current head cursor is
+     * returned. A sync job takes that cursor, copies GET /students once, and
+     * from then on only asks for changes.
+     * </p>
+     *
+     * @param since The nextCursor of the previous page, or null for the head cursor
+     * @param limit The requested page size (clamped to 1..max-page-size)
+     * @return The changes along with the cursor to continue from
+     */
+    @Transactional(readOnly = true)
+    public StudentChangePageDTO getChanges(Long since, int limit) {
+        if (since == null) {
+            return StudentChangePageDTO.builder()
+                    .changes(List.of())
+                    .size(0)
+                    .nextCursor(changeRepository.findHeadCursor())
+                    .hasMore(false)
+                    .build();
+        }
+        int pageSize = Math.min(Math.max(limit, 1), maxChangesPageSize);
+        log.info("Fetching student changes since cursor: {} (limit: {})", since, pageSize);
+
+        // Fetch one extra row to learn whether another page exists
+        List<StudentChangeDTO> rows = changeRepository.findChangesAfter(since, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<StudentChangeDTO> changes = hasMore ? rows.subList(0, pageSize) : rows;
+
+        // Attach the current state of every live student in the page
+        Set<Long> liveIds = changes.stream()
+                .filter(change -> !"DELETED".equals(change.getType()))
+                .map(StudentChangeDTO::getStudentId)
+                .collect(Collectors.toSet());
+        if (!liveIds.isEmpty()) {
+            Map<Long, StudentDTO> students = studentRepository.findDtosByIdIn(liveIds).stream()
+                    .collect(Collectors.toMap(StudentDTO::getId, student -> student));
+            changes.forEach(change -> {
+                if (!"DELETED".equals(change.getType())) {
+                    change.setStudent(students.get(change.getStudentId()));
+                }
+            });
+        }
+
+        return StudentChangePageDTO.builder()
+                .changes(changes)
+                .size(changes.size())
+                .nextCursor(changes.isEmpty() ? since : changes.get(changes.size() - 1).getCursor())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Stream all students
+     * <p>
+     * Reads every student over a forward-only cursor and hands each one to the
+     * consumer as it arrives. Rows are projected into DTOs, so nothing is kept
+     * in the persistence context and memory use stays flat no matter how many
+     * rows there are.
+     * </p>
+     *
+     * @param consumer Receives each StudentDTO in id order
+     * @return The number of students streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamAllStudents(Consumer<StudentDTO> consumer) {
+        log.info("Streaming all students");
+        long count = 0;
+        try (Stream<StudentDTO> students = studentRepository.streamAllOrderById()) {
+            for (StudentDTO student : (Iterable<StudentDTO>) students::iterator) {
+                consumer.accept(student);
+                count++;
+            }
+        }
+        log.info("Streamed {} students", count);
+        return count;
     }
 
     /**
      * Get student by ID
      * <p>
-     * Retrieves a specific student by their unique identifier.
+     * Retrieves a specific student by their unique identifier. Served from the
+     * read-through cache; only a miss goes to the database.
      * </p>
      *
      * @param id The ID of the student to retrieve
      * @return The StudentDTO object
      * @throws ResourceNotFoundException if the student is not found
      */
+    @Transactional(readOnly = true)
     public StudentDTO getStudentById(Long id) {
         log.info("Fetching student with id: {}", id); // Log the action with the ID
+        return studentCache.get(id, this::loadStudent);
+    }
 
-        // Attempt to find the student by ID
-        Student student = studentRepository.findById(id)
+    /**
+     * Get the version of the whole students collection
+     * <p>
+     * Changes whenever a student is created, updated or deleted. Served from
+     * memory when known; otherwise one aggregate query computes it.
+     * </p>
+     *
+     * @return The collection version, used as the ETag of GET /students
+     */
+    @Transactional(readOnly = true)
+    public String getCollectionVersion() {
+        return studentCache.getCollectionVersion(studentRepository::findCollectionVersion);
+    }
+
+    /**
+     * Get many students by ID
+     * <p>
+     * Ids already in the cache are answered from it; the rest are fetched with
+     * a single {@code WHERE id IN (...)} query. Ids that match no student are
+     * reported in {@code missing}.
+     * </p>
+     *
+     * @param ids The IDs to look up (duplicates are ignored)
+     * @return Found students keyed by id, in request order, plus the missing ids
+     * @throws IllegalArgumentException if more than max-ids distinct ids are requested
+     */
+    @Transactional(readOnly = true)
+    public StudentBatchDTO getStudentsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids can be requested at once");
+        }
+        log.info("Fetching {} students by id", requested.size());
+
+        Map<Long, StudentDTO> found = new LinkedHashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : requested) {
+            StudentDTO cached = studentCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            studentRepository.findDtosByIdIn(uncached).forEach(student -> found.put(student.getId(), student));
+        }
+
+        // Rebuild in request order and collect ids nothing was found for
+        Map<Long, StudentDTO> students = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            StudentDTO student = found.get(id);
+            if (student != null) {
+                students.put(id, student);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new StudentBatchDTO(students, missing);
+    }
+
+    private StudentDTO loadStudent(Long id) {
+        // Attempt to find the student by ID, projected straight into a DTO
+        return studentRepository.findDtoById(id)
                 // If not found, throw a custom exception
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-
-        // Convert the found entity to a DTO and return it
-        return convertToDTO(student);
     }
 
     /**
@@ -111,7 +354,7 @@ public class StudentService {
         log.info("Creating new student with email: {}", studentDTO.getEmail()); // Log the creation attempt
 
         // Check if a student with the provided email already exists in the database
-        if (studentRepository.existsByEmail(studentDTO.getEmail())) {
+        if (isEmailTaken(studentDTO.getEmail())) {
             // If it exists, throw an exception to prevent duplicates
             throw new DuplicateResourceException("Student already exists with email: " + studentDTO.getEmail());
         }
@@ -119,16 +362,33 @@ public class StudentService {
         // Convert the input DTO to a Student entity
         Student student = convertToEntity(studentDTO);
 
-        // Save the entity to the database
-        Student savedStudent = studentRepository.save(student);
+        // Save the entity to the database; flush so a unique-constraint race surfaces here
+        Student savedStudent;
+        try {
+            savedStudent = studentRepository.saveAndFlush(student);
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailConflict(e)) {
+                throw e;
+            }
+            throw new DuplicateResourceException("Student already exists with email: " + studentDTO.getEmail(), e);
+        }
+        emailFilter.add(savedStudent.getEmail());
         log.info("Student created successfully with id: {}", savedStudent.getId()); // Log success
 
         // Publish a 'CREATED' event to Kafka so other services can react (e.g., send
         // welcome email)
         publishEvent("CREATED", savedStudent);
 
-        // Convert the saved entity back to a DTO and return it
-        return convertToDTO(savedStudent);
+        changeLog.record("CREATED", savedStudent.getId());
+
+        // Convert the saved entity back to a DTO and make it searchable once committed
+        StudentDTO created = convertToDTO(savedStudent);
+        runAfterCommit(() -> {
+            studentCache.invalidateCollectionVersion();
+            searchIndex.index(created);
+            statistics.put(created.getId(), created.getGrade(), created.getCity());
+        });
+        return created;
     }
 
     /**
@@ -153,7 +413,7 @@ public class StudentService {
 
         // Check if the email is being changed and if the new email is already taken
         if (!existingStudent.getEmail().equals(studentDTO.getEmail()) &&
-                studentRepository.existsByEmail(studentDTO.getEmail())) {
+                isEmailTaken(studentDTO.getEmail())) {
             throw new DuplicateResourceException("Email already exists: " + studentDTO.getEmail());
         }
 
@@ -165,15 +425,32 @@ public class StudentService {
         existingStudent.setEnrollmentDate(studentDTO.getEnrollmentDate());
         existingStudent.setGrade(studentDTO.getGrade());
 
-        // Save the updated entity back to the database
-        Student updatedStudent = studentRepository.save(existingStudent);
+        // Save the updated entity back to the database; flush so a unique-constraint race surfaces here
+        Student updatedStudent;
+        try {
+            updatedStudent = studentRepository.saveAndFlush(existingStudent);
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailConflict(e)) {
+                throw e;
+            }
+            throw new DuplicateResourceException("Email already exists: " + studentDTO.getEmail(), e);
+        }
+        emailFilter.add(updatedStudent.getEmail());
         log.info("Student updated successfully with id: {}", id); // Log success
 
         // Publish an 'UPDATED' event to Kafka
         publishEvent("UPDATED", updatedStudent);
-
-        // Return the updated DTO
-        return convertToDTO(updatedStudent);
+        changeLog.record("UPDATED", id);
+
+        // Return the updated DTO and refresh its search entry once committed
+        StudentDTO updated = convertToDTO(updatedStudent);
+        runAfterCommit(() -> {
+            studentCache.invalidate(id);
+            studentCache.invalidateCollectionVersion();
+            searchIndex.index(updated);
+            statistics.put(id, updated.getGrade(), updated.getCity());
+        });
+        return updated;
     }
 
     /**
@@ -189,37 +466,80 @@ public class StudentService {
         log.info("Deleting student with id: {}", id); // Log the delete attempt
 
         // Check if the student exists before attempting to delete
-        if (!studentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Student not found with id: " + id);
-        }
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
 
         // Delete the student from the repository
-        studentRepository.deleteById(id);
+        studentRepository.delete(student);
         log.info("Student deleted successfully with id: {}", id); // Log success
 
         // Publish a 'DELETED' event to Kafka
         publishEvent("DELETED", id);
+        changeLog.record("DELETED", id);
+        runAfterCommit(() -> {
+            studentCache.invalidate(id);
+            studentCache.invalidateCollectionVersion();
+            searchIndex.remove(id);
+            statistics.remove(id);
+        });
+    }
+
+    /**
+     * Get student statistics
+     * <p>
+     * Returns the number of students per grade and per city from in-memory
+     * counters; no database query is made.
+     * </p>
+     *
+     * @return The current counts
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public StudentStatsDTO getStatistics() {
+        return statistics.snapshot();
     }
 
     /**
      * Search students
      * <p>
-     * Finds students based on a search term (e.g., name or email).
+     * Finds students whose name, email or city contains the search term,
+     * ranked best match first. Served from the in-memory trigram index; the
+     * database query is only used until the index has finished building.
      * </p>
      *
      * @param searchTerm The string to search for
+     * @param limit      Maximum number of results (clamped to 1..max-limit)
      * @return List of matching StudentDTOs
      */
-    public List<StudentDTO> searchStudents(String searchTerm) {
+    @Transactional(readOnly = true)
+    public List<StudentDTO> searchStudents(String searchTerm, int limit) {
         log.info("Searching students with term: {}", searchTerm); // Log the search
+        int maxResults = Math.min(Math.max(limit, 1), maxSearchLimit);
 
-        // Use the repository's custom search method
+        if (searchIndex.isReady()) {
+            return searchIndex.search(searchTerm, maxResults);
+        }
+
+        // Index not built yet: fall back to the repository's custom search method
         return studentRepository.searchStudents(searchTerm)
                 .stream()
-                .map(this::convertToDTO)
+                .limit(maxResults)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Build the search index
+     * <p>
+     * Runs once the application is ready, streaming every student into the
+     * in-memory trigram index.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        log.info("Building student search index");
+        searchIndex.rebuild(this::streamAllStudents);
+    }
+
     /**
      * Get students by grade
      * <p>
@@ -229,14 +549,29 @@ public class StudentService {
      * @param grade The grade to filter by
      * @return List of StudentDTOs in that grade
      */
+    @Transactional(readOnly = true)
     public List<StudentDTO> getStudentsByGrade(String grade) {
         log.info("Fetching students with grade: {}", grade); // Log the filter action
 
-        // Find students by grade using the repository
-        return studentRepository.findByGrade(grade)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Find students by grade using the repository's DTO projection
+        return studentRepository.findByGrade(grade);
+    }
+
+    /**
+     * Get students by city
+     * <p>
+     * Filters students by their city.
+     * </p>
+     *
+     * @param city The city to filter by
+     * @return List of StudentDTOs in that city
+     */
+    @Transactional(readOnly = true)
+    public List<StudentDTO> getStudentsByCity(String city) {
+        log.info("Fetching students in city: {}", city); // Log the filter action
+
+        // Find students by city using the repository's DTO projection
+        return studentRepository.findByCity(city);
     }
 
     /**
@@ -257,6 +592,7 @@ public class StudentService {
         dto.setCity(student.getCity());
         dto.setEnrollmentDate(student.getEnrollmentDate());
         dto.setGrade(student.getGrade());
+        dto.setVersion(student.getVersion());
         return dto;
     }
 
@@ -280,63 +616,173 @@ public class StudentService {
         return student;
     }
 
+    /**
+     * Seed the email filter
+     * <p>
+     * Runs once the application is ready. Emails written while seeding are
+     * added directly, so the filter only starts answering once it is complete.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedEmailFilter() {
+        log.info("Seeding student email filter");
+        try (Stream<String> emails = studentRepository.streamAllEmails()) {
+            emails.forEach(emailFilter::add);
+        }
+        emailFilter.markReady();
+    }
+
+    /**
+     * Check whether an email is already registered
+     * <p>
+     * Definitely-new emails are answered by the Bloom filter; anything else
+     * falls back to the database.
+     * </p>
+     *
+     * @param email The email to check
+     * @return true if a student already uses this email
+     */
+    private boolean isEmailTaken(String email) {
+        if (emailFilter.isDefinitelyNew(email)) {
+            return false;
+        }
+        boolean exists = studentRepository.existsByEmail(email);
+        if (!exists) {
+            emailFilter.recordFalsePositive();
+        }
+        return exists;
+    }
+
+    /**
+     * Whether a failed write violated the unique constraint on students.email
+     * <p>
+     * Only that violation means the email is taken; any other constraint
+     * failure is left to propagate as it is.
+     * </p>
+     *
+     * @param e The exception thrown by the write
+     * @return true if the students.email constraint was violated
+     */
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return Student.EMAIL_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run an action after the current transaction commits
+     * <p>
+     * Keeps in-memory views of the students table from ever reflecting a write
+     * that was rolled back. Runs immediately when no transaction is active.
+     * </p>
+     *
+     * @param action The action to run
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     /**
      * Publish Kafka Event (for Student entity)
      * <p>
-     * Creates a StudentEvent and sends it to the configured Kafka topic.
+     * Writes a StudentEvent to the outbox in the current transaction. The
+     * outbox relay sends it to the configured Kafka topic after commit, so an
+     * event is never sent for a rolled-back change and the request never waits
+     * on the broker.
      * </p>
      *
      * @param eventType The type of event (CREATED, UPDATED)
      * @param student   The student entity involved in the event
      */
     private void publishEvent(String eventType, Student student) {
-        try {
-            // Create the event object
-            log.debug("Attempting to publish event: {}", eventType);
-            StudentEvent event = new StudentEvent(
-                    eventType,
-                    student.getId(),
-                    student.getEmail(),
-                    LocalDateTime.now().toString());
-
-            // Send the event to the Kafka topic
-            kafkaTemplate.send(topicName, event);
-            log.info("Published Kafka event: {} for studentId: {}", eventType, student.getId());
-        } catch (Exception e) {
-            // Log any errors that occur during publishing, but don't fail the transaction
-            log.error("Error publishing Kafka event", e);
-        }
+        outboxRepository.save(new StudentOutboxEvent(
+                null,
+                eventType,
+                student.getId(),
+                student.getEmail(),
+                student.getName(),
+                LocalDateTime.now().toString()));
+        log.info("Queued Kafka event: {} for studentId: {}", eventType, student.getId());
     }
 
     private void publishEvent(String eventType, Long studentId) {
-        try {
-            // Create the event object with null email
-            StudentEvent event = new StudentEvent(
-                    eventType,
-                    studentId,
-                    null,
-                    LocalDateTime.now().toString());
-
-            // Send the event to the Kafka topic
-            kafkaTemplate.send(topicName, event);
-            log.info("Published Kafka event: {} for studentId: {}", eventType, studentId);
-        } catch (Exception e) {
-            log.error("Error publishing Kafka event", e);
-        }
+        // Create the event with null email and name
+        outboxRepository.save(new StudentOutboxEvent(
+                null,
+                eventType,
+                studentId,
+                null,
+                null,
+                LocalDateTime.now().toString()));
+        log.info("Queued Kafka event: {} for studentId: {}", eventType, studentId);
     }
 
+    /**
+     * Add many students at once
+     * <p>
+     * All or nothing: one invalid row or taken email rejects the whole list
+     * and nothing is stored. The rows are written with JDBC batches in a
+     * single transaction. Callers that want the valid rows stored and a
+     * row-level report of the rest should use {@link #importStudents(List)}
+     * (POST /students/import) instead.
+     * </p>
+     *
+     * @param studDTO The students to add
+     * @return The students that were stored, with their new ids
+     * @throws IllegalArgumentException   if a row is invalid
+     * @throws DuplicateResourceException if an email is repeated or already taken
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<StudentDTO> addAllStudents(List<StudentDTO> studDTO) {
+        log.info("Adding {} students", studDTO.size());
+        return bulkImportService.insertAll(studDTO);
+    }
 
-        // Convert all DTOs to entities
-        List<Student> entities = studDTO.stream()
-                .map(this::convertToEntity)
-                .toList();
-
-        List<Student> s = studentRepository.saveAll(entities);
-
-        s.forEach(s1 -> publishEvent("CREATED", s1));
-
-        return s.stream().map(this::convertToDTO).toList();
+    /**
+     * Bulk import students with a row-level report
+     * <p>
+     * Each chunk commits on its own, so rows imported before a failure stay
+     * imported. Not wrapped in a transaction for that reason.
+     * </p>
+     *
+     * @param students The students to import
+     * @return Counts and row-level errors
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StudentImportResult importStudents(List<StudentDTO> students) {
+        log.info("Importing {} students", students.size());
+        return bulkImportService.importStudents(students, student -> {
+        });
+    }
 
+    /**
+     * Stream-ingest students from NDJSON or CSV
+     * <p>
+     * Rows are parsed and written in bounded batches while the body is still
+     * being read. Each batch commits on its own.
+     * </p>
+     *
+     * @param body The raw request body
+     * @param csv  True for CSV with a header row, false for NDJSON
+     * @return Counts and row-level errors
+     * @throws IOException if the body cannot be read
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StudentImportResult ingestStudents(InputStream body, boolean csv) throws IOException {
+        log.info("Ingesting students from {} stream", csv ? "CSV" : "NDJSON");
+        return csv ? ingestService.ingestCsv(body) : ingestService.ingestNdjson(body);
     }
 }
@@ -0,0 +1,181 @@
+package com.studentmanagement.student.stats;
+
+import com.studentmanagement.dto.StudentGroupingDTO;
+import com.studentmanagement.dto.StudentStatsDTO;
+import com.studentmanagement.event.StudentEvent;
+import com.studentmanagement.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Aggregate counters of students per grade and per city.
+ * <p>
+ * Remembers the grade and city each student is counted under, so applying a
+ * student's current state is idempotent: the counters move only if the
+ * grouping changed. {@link com.studentmanagement.student.service.StudentService}
+ * applies committed creates, updates, deletes and bulk adds right away, and
+ * every replica also reads the whole student-events topic without a consumer
+ * group, re-reads the student's current row and applies it. Writes made on any
+ * replica are therefore counted everywhere, and late or repeated events are
+ * harmless. Reading the stats never touches the database.
+ * </p>
+ * <p>
+ * A scheduled reconciliation reloads everything from the database as a
+ * backstop for missed events. Writes that arrive during the reload are applied
+ * to both the live counters and the new ones so nothing is lost.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentStatistics {
+
+    private final StudentRepository studentRepository;
+
+    // All fields below are guarded by this
+    private Counts counts = new Counts();
+    private List<Consumer<Counts>> pendingDuringReload;
+    private LocalDateTime lastReconciledAt;
+
+    /**
+     * Count a student under its current grade and city, moving it if it was counted elsewhere
+     */
+    public void put(Long studentId, String grade, String city) {
+        if (studentId != null) {
+            Grouping grouping = new Grouping(grade, city);
+            write(live -> live.put(studentId, grouping));
+        }
+    }
+
+    /**
+     * Stop counting a deleted student
+     */
+    public void remove(Long studentId) {
+        if (studentId != null) {
+            write(live -> live.remove(studentId));
+        }
+    }
+
+    /**
+     * Current counts; each map is sorted by grade or city
+     */
+    public synchronized StudentStatsDTO snapshot() {
+        return StudentStatsDTO.builder()
+                .total(counts.members.size())
+                .byGrade(new TreeMap<>(counts.byGrade))
+                .byCity(new TreeMap<>(counts.byCity))
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+
+    /**
+     * Cross-replica updates.
+     * Groupless, so every replica gets its own copy of each event.
+     */
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${spring.kafka.topic.student-events}",
+            partitions = "0"), containerFactory = "broadcastListenerContainerFactory")
+    public void onStudentEvent(StudentEvent event) {
+        Long studentId = event.getStudentId();
+        if (studentId == null) {
+            return;
+        }
+        studentRepository.findDtoById(studentId).ifPresentOrElse(
+                student -> put(studentId, student.getGrade(), student.getCity()),
+                () -> remove(studentId));
+    }
+
+    /**
+     * Reload all counters from the database
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.students.stats.reconcile-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        synchronized (this) {
+            pendingDuringReload = new ArrayList<>();
+        }
+        try {
+            Counts loaded = new Counts();
+            try (Stream<StudentGroupingDTO> rows = studentRepository.streamAllGroupings()) {
+                rows.forEach(row -> loaded.put(row.getId(), new Grouping(row.getGrade(), row.getCity())));
+            }
+            synchronized (this) {
+                pendingDuringReload.forEach(write -> write.accept(loaded));
+                long drift = Math.abs(loaded.members.size() - counts.members.size());
+                counts = loaded;
+                pendingDuringReload = null;
+                lastReconciledAt = LocalDateTime.now();
+                log.info("Reconciled student statistics: {} grades, {} cities (total drift {})",
+                        loaded.byGrade.size(), loaded.byCity.size(), drift);
+            }
+        } catch (Exception e) {
+            synchronized (this) {
+                pendingDuringReload = null;
+            }
+            log.error("Error reconciling student statistics", e);
+        }
+    }
+
+    private synchronized void write(Consumer<Counts> write) {
+        write.accept(counts);
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(write);
+        }
+    }
+
+    /**
+     * The grouping of every counted student and the resulting counters
+     */
+    private static final class Counts {
+
+        private final Map<Long, Grouping> members = new HashMap<>();
+        private final Map<String, Long> byGrade = new HashMap<>();
+        private final Map<String, Long> byCity = new HashMap<>();
+
+        void put(Long studentId, Grouping grouping) {
+            Grouping previous = members.put(studentId, grouping);
+            if (grouping.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                count(previous, -1);
+            }
+            count(grouping, 1);
+        }
+
+        void remove(Long studentId) {
+            Grouping previous = members.remove(studentId);
+            if (previous != null) {
+                count(previous, -1);
+            }
+        }
+
+        private void count(Grouping grouping, long delta) {
+            adjust(byGrade, grouping.grade(), delta);
+            adjust(byCity, grouping.city(), delta);
+        }
+
+        // A counter that drops to zero is removed, so empty groups are not reported
+        private static void adjust(Map<String, Long> counters, String key, long delta) {
+            if (key != null) {
+                counters.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+            }
+        }
+    }
+
+    private record Grouping(String grade, String city) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.studentmanagement.student.cache;
+
+import com.studentmanagement.event.StudentEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentEmailFilterTest {
+
+    private static final double TARGET_FPP = 0.01;
+
+    @Test
+    void answersMightContainForEverythingUntilReady() {
+        StudentEmailFilter filter = filter(100);
+
+        assertThat(filter.isDefinitelyNew("new@example.com")).isFalse();
+
+        filter.markReady();
+        assertThat(filter.isDefinitelyNew("new@example.com")).isTrue();
+    }
+
+    @Test
+    void neverReportsAnAddedEmailAsNew() {
+        StudentEmailFilter filter = filter(100);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("student" + i + "@example.com");
+        }
+        filter.markReady();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.isDefinitelyNew("student" + i + "@example.com")).isFalse();
+        }
+        // An email that already looks present is not inserted again
+        assertThat(filter.getInsertions()).isBetween(990L, 1_000L);
+    }
+
+    @Test
+    void growsBiggerSlicesOnceTheNewestIsFull() {
+        StudentEmailFilter filter = filter(100);
+        assertThat(filter.getSliceCount()).isEqualTo(1);
+        long firstSliceBits = filter.getBitCount();
+
+        for (int i = 0; i < 100; i++) {
+            filter.add("student" + i + "@example.com");
+        }
+        assertThat(filter.getSliceCount()).isEqualTo(1);
+
+        filter.add("one-more@example.com");
+        assertThat(filter.getSliceCount()).isEqualTo(2);
+        // Twice the capacity at half the error rate takes more than twice the bits
+        assertThat(filter.getBitCount() - firstSliceBits).isGreaterThan(2 * firstSliceBits);
+
+        // 100 + 200 + 400 emails fill three slices
+        for (int i = 100; i < 700; i++) {
+            filter.add("student" + i + "@example.com");
+        }
+        assertThat(filter.getSliceCount()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateBelowTheTargetAfterGrowing() {
+        StudentEmailFilter filter = filter(1_000);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("student" + i + "@example.com");
+        }
+        filter.markReady();
+        assertThat(filter.getSliceCount()).isGreaterThan(1);
+        assertThat(filter.estimatedFalsePositiveRate()).isLessThan(TARGET_FPP);
+
+        int falsePositives = 0;
+        int probes = 20_000;
+        for (int i = 0; i < probes; i++) {
+            if (!filter.isDefinitelyNew("unknown" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThan(TARGET_FPP);
+    }
+
+    @Test
+    void learnsEmailsFromCreatedAndUpdatedEventsOnly() {
+        StudentEmailFilter filter = filter(100);
+        filter.markReady();
+
+        filter.onStudentEvent(new StudentEvent("CREATED", 1L, "created@example.com", "A", "now"));
+        filter.onStudentEvent(new StudentEvent("UPDATED", 2L, "updated@example.com", "B", "now"));
+        filter.onStudentEvent(new StudentEvent("DELETED", 3L, "deleted@example.com", null, "now"));
+
+        assertThat(filter.isDefinitelyNew("created@example.com")).isFalse();
+        assertThat(filter.isDefinitelyNew("updated@example.com")).isFalse();
+        assertThat(filter.isDefinitelyNew("deleted@example.com")).isTrue();
+    }
+
+    private static StudentEmailFilter filter(int initialCapacity) {
+        return new StudentEmailFilter(new SimpleMeterRegistry(), initialCapacity, TARGET_FPP);
+    }
+}
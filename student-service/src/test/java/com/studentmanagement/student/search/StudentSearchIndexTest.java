@@ -0,0 +1,115 @@
+package com.studentmanagement.student.search;
+
+import com.studentmanagement.dto.StudentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentSearchIndexTest {
+
+    private final StudentSearchIndex index = new StudentSearchIndex();
+
+    @Test
+    void findsSubstringsAcrossFieldsAndRanksNameMatchesFirst() {
+        index.rebuild(sink -> {
+            sink.accept(student(1L, "Maria Lopez", "maria@example.com", "Austin"));
+            sink.accept(student(2L, "John Smith", "john.lopez@example.com", "Boston"));
+            sink.accept(student(3L, "Ann Lee", "ann@example.com", "Lopezville"));
+        });
+
+        // Inner name match (1), then city prefix (3), then inner email match (2)
+        assertThat(ids(index.search("LOPEZ", 10))).containsExactly(1L, 3L, 2L);
+        assertThat(ids(index.search("bost", 10))).containsExactly(2L);
+        assertThat(ids(index.search("zzz", 10))).isEmpty();
+    }
+
+    @Test
+    void answersTermsShorterThanAGramByScanning() {
+        index.rebuild(sink -> {
+            sink.accept(student(1L, "Al Green", "al@example.com", "Denver"));
+            sink.accept(student(2L, "Bo Brown", "bo@example.com", "Dallas"));
+        });
+
+        assertThat(ids(index.search("al", 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void limitsResultsToTheBestMatches() {
+        index.rebuild(sink -> {
+            sink.accept(student(1L, "Sam Inner", "x1@example.com", "Sampleton"));
+            sink.accept(student(2L, "Sam", "x2@example.com", "Paris"));
+            sink.accept(student(3L, "Isam Other", "x3@example.com", "Rome"));
+        });
+
+        assertThat(ids(index.search("sam", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void updateReplacesTheOldGramsAndRemoveDropsTheStudent() {
+        index.rebuild(sink -> sink.accept(student(1L, "Old Name", "old@example.com", "Oslo")));
+
+        index.index(student(1L, "New Name", "new@example.com", "Oslo"));
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(ids(index.search("new", 10))).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("oslo", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void isNotReadyUntilTheFirstRebuildCompletes() {
+        assertThat(index.isReady()).isFalse();
+
+        index.rebuild(sink -> {
+        });
+
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void replaysWritesMadeDuringARebuildOntoTheNewIndex() {
+        index.rebuild(sink -> {
+            sink.accept(student(1L, "Stale Name", "one@example.com", "Lima"));
+            // Writes from other threads land while the loader is still streaming
+            index.index(student(1L, "Fresh Name", "one@example.com", "Lima"));
+            index.index(student(2L, "Late Arrival", "two@example.com", "Quito"));
+            index.remove(3L);
+            sink.accept(student(3L, "Deleted Meanwhile", "three@example.com", "Cusco"));
+        });
+
+        assertThat(index.search("stale", 10)).isEmpty();
+        assertThat(ids(index.search("fresh", 10))).containsExactly(1L);
+        assertThat(ids(index.search("late", 10))).containsExactly(2L);
+        // The delete is newer than the row the loader read
+        assertThat(index.search("cusco", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsTheLiveIndexWhenTheLoaderFails() {
+        index.rebuild(sink -> sink.accept(student(1L, "Kept Student", "kept@example.com", "Bern")));
+
+        try {
+            index.rebuild(sink -> {
+                throw new IllegalStateException("database gone");
+            });
+        } catch (IllegalStateException expected) {
+            // The failure is the caller's to report
+        }
+        index.index(student(2L, "After Failure", "after@example.com", "Bern"));
+
+        assertThat(ids(index.search("bern", 10))).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    private static StudentDTO student(Long id, String name, String email, String city) {
+        return new StudentDTO(id, name, email, "0123456789", city, LocalDate.of(2024, 9, 1), "A", 0L);
+    }
+
+    private static List<Long> ids(List<StudentDTO> students) {
+        return students.stream().map(StudentDTO::getId).toList();
+    }
+}
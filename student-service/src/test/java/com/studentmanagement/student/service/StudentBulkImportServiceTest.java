@@ -0,0 +1,217 @@
+package com.studentmanagement.student.service;
+
+import com.studentmanagement.dto.StudentDTO;
+import com.studentmanagement.dto.StudentImportResult;
+import com.studentmanagement.exception.DuplicateResourceException;
+import com.studentmanagement.repository.StudentRepository;
+import com.studentmanagement.student.cache.StudentCache;
+import com.studentmanagement.student.cache.StudentEmailFilter;
+import com.studentmanagement.student.changes.StudentChangeLog;
+import com.studentmanagement.student.search.StudentSearchIndex;
+import com.studentmanagement.student.stats.StudentStatistics;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentBulkImportServiceTest {
+
+    private final StudentRepository studentRepository = mock(StudentRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final StudentSearchIndex searchIndex = mock(StudentSearchIndex.class);
+    private final StudentEmailFilter emailFilter = mock(StudentEmailFilter.class);
+    private final StudentStatistics statistics = mock(StudentStatistics.class);
+    private final StudentChangeLog changeLog = mock(StudentChangeLog.class);
+
+    private final StudentBulkImportService service = new StudentBulkImportService(studentRepository, jdbcTemplate,
+            transactionTemplate, Validation.buildDefaultValidatorFactory().getValidator(), searchIndex, emailFilter,
+            statistics, mock(StudentCache.class), changeLog);
+
+    // Emails the fake database rejects with a unique violation, although the pre-check did not see them
+    private final Set<String> claimedConcurrently = new HashSet<>();
+    private final List<Integer> insertBatchSizes = new ArrayList<>();
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "chunkSize", 1000);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 1000);
+        when(studentRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            transactions.incrementAndGet();
+            return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+        });
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+            try {
+                return invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(fakeConnection());
+            } catch (SQLException e) {
+                // What JdbcTemplate translates a PostgreSQL unique violation into
+                throw new DuplicateKeyException(e.getMessage(), e);
+            }
+        });
+    }
+
+    @Test
+    void insertsAChunkWithOneBatch() {
+        StudentImportResult result = service.importStudents(
+                List.of(student("a@example.com"), student("b@example.com"), student("c@example.com")), s -> {
+                });
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isZero();
+        assertThat(insertBatchSizes).containsExactly(3);
+        verify(changeLog).recordAll(eq("CREATED"), any());
+        verify(searchIndex, times(3)).index(any());
+        verify(statistics, times(3)).put(any(), eq("A"), eq("Austin"));
+    }
+
+    @Test
+    void retriesRowByRowWhenTheBatchHitsAConcurrentDuplicate() {
+        claimedConcurrently.add("b@example.com");
+        List<StudentDTO> created = new ArrayList<>();
+
+        StudentImportResult result = service.importStudents(
+                List.of(student("a@example.com"), student("b@example.com"), student("c@example.com")),
+                created::add);
+
+        // The failed batch, then one insert per row
+        assertThat(insertBatchSizes).containsExactly(3, 1, 1, 1);
+        assertThat(transactions.get()).isEqualTo(4);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getEmail()).isEqualTo("b@example.com");
+            assertThat(error.getMessage()).contains("already exists");
+        });
+        assertThat(created).extracting(StudentDTO::getEmail).containsExactly("a@example.com", "c@example.com");
+        assertThat(created).extracting(StudentDTO::getId).doesNotContainNull();
+    }
+
+    @Test
+    void rejectsInvalidRepeatedAndExistingRowsBeforeInserting() {
+        when(studentRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+        StudentDTO invalid = student("invalid@example.com");
+        invalid.setContact("123");
+
+        StudentImportResult result = service.importStudents(List.of(student("a@example.com"), invalid,
+                student("a@example.com"), student("taken@example.com")), s -> {
+                });
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(StudentImportResult.RowError::getRow).containsExactly(2L, 3L, 4L);
+        assertThat(insertBatchSizes).containsExactly(1);
+    }
+
+    @Test
+    void insertAllStoresEveryRowInOneTransaction() {
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+
+        List<StudentDTO> created = service.insertAll(List.of(student("a@example.com"), student("b@example.com"),
+                student("c@example.com")));
+
+        assertThat(created).hasSize(3);
+        assertThat(transactions.get()).isEqualTo(1);
+        assertThat(insertBatchSizes).containsExactly(2, 1);
+    }
+
+    @Test
+    void insertAllStoresNothingWhenAnEmailIsTaken() {
+        when(studentRepository.findExistingEmails(anyCollection())).thenReturn(List.of("b@example.com"));
+
+        assertThatThrownBy(() -> service.insertAll(List.of(student("a@example.com"), student("b@example.com"))))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessageContaining("b@example.com");
+        assertThat(insertBatchSizes).isEmpty();
+        verify(searchIndex, never()).index(any());
+    }
+
+    @Test
+    void insertAllRejectsAnInvalidRowOrARepeatedEmail() {
+        StudentDTO invalid = student("b@example.com");
+        invalid.setGrade("Z");
+
+        assertThatThrownBy(() -> service.insertAll(List.of(student("a@example.com"), invalid)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Row 2");
+        assertThatThrownBy(() -> service.insertAll(List.of(student("a@example.com"), student("a@example.com"))))
+                .isInstanceOf(DuplicateResourceException.class);
+        assertThat(insertBatchSizes).isEmpty();
+    }
+
+    @Test
+    void insertAllTurnsAConcurrentDuplicateIntoAConflict() {
+        claimedConcurrently.add("b@example.com");
+
+        assertThatThrownBy(() -> service.insertAll(List.of(student("a@example.com"), student("b@example.com"))))
+                .isInstanceOf(DuplicateResourceException.class);
+        verify(searchIndex, never()).index(any());
+    }
+
+    /**
+     * A connection whose INSERT batch hands out ids, or fails if it contains a concurrently claimed email
+     */
+    private Connection fakeConnection() throws SQLException {
+        List<String> emails = new ArrayList<>();
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doAnswer(invocation -> {
+            emails.add(invocation.getArgument(1));
+            return null;
+        }).when(statement).setString(eq(2), anyString());
+        when(statement.executeBatch()).thenAnswer(invocation -> {
+            insertBatchSizes.add(emails.size());
+            if (emails.stream().anyMatch(claimedConcurrently::contains)) {
+                throw new SQLException("duplicate key value violates unique constraint \"uk_students_email\"");
+            }
+            return new int[emails.size()];
+        });
+        ResultSet keys = mock(ResultSet.class);
+        AtomicInteger returned = new AtomicInteger();
+        when(keys.next()).thenAnswer(invocation -> returned.getAndIncrement() < emails.size());
+        when(keys.getLong(1)).thenAnswer(invocation -> nextId.incrementAndGet());
+        when(statement.getGeneratedKeys()).thenReturn(keys);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString(), any(String[].class))).thenReturn(statement);
+        return connection;
+    }
+
+    private static StudentDTO student(String email) {
+        return new StudentDTO(null, "Student " + email, email, "0123456789", "Austin", LocalDate.of(2024, 9, 1),
+                "A", null);
+    }
+}
@@ -0,0 +1,118 @@
+package com.studentmanagement.student.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.studentmanagement.dto.StudentImportResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class StudentIngestServiceTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(StudentIngestService.splitCsv("a,b,,c")).containsExactly("a", "b", "", "c");
+    }
+
+    @Test
+    void keepsCommasAndEscapedQuotesInsideQuotedFields() {
+        assertThat(StudentIngestService.splitCsv("\"Lopez, Maria\",\"say \"\"hi\"\"\",x"))
+                .containsExactly("Lopez, Maria", "say \"hi\"", "x");
+    }
+
+    @Test
+    void keepsATrailingEmptyField() {
+        assertThat(StudentIngestService.splitCsv("a,")).containsExactly("a", "");
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() {
+        assertThatThrownBy(() -> StudentIngestService.splitCsv("\"open,field"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unterminated");
+    }
+
+    @Test
+    void readsLinesWithEveryKindOfTerminator() throws IOException {
+        assertThat(readAll("one\ntwo\r\nthree\rfour", 100)).containsExactly("one", "two", "three", "four");
+        assertThat(readAll("one\n\ntwo\n", 100)).containsExactly("one", "", "two");
+    }
+
+    @Test
+    void replacesAnOverLongLineAndCarriesOnWithTheNext() throws IOException {
+        List<String> lines = readAll("short\n" + "x".repeat(50) + "\r\nafter", 10);
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("short");
+        assertThat(lines.get(1)).isSameAs(StudentIngestService.BoundedLineReader.TOO_LONG);
+        assertThat(lines.get(2)).isEqualTo("after");
+    }
+
+    @Test
+    void reportsOverLongCsvRowsAsRowErrorsAndImportsTheRest() throws IOException {
+        StudentBulkImportService bulkImportService = mock(StudentBulkImportService.class);
+        List<StudentBulkImportService.ImportRow> imported = new ArrayList<>();
+        doAnswer(invocation -> {
+            imported.addAll(invocation.getArgument(0));
+            return List.of();
+        }).when(bulkImportService).importChunk(any(), any());
+        StudentIngestService service = new StudentIngestService(bulkImportService,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "maxLineLength", 80);
+
+        String csv = "name,email,contact,city,enrollment_date,grade\n"
+                + "\"Lopez, Maria\",maria@example.com,0123456789,Austin,2024-09-01,A\n"
+                + "Long Row," + "x".repeat(100) + "@example.com,0123456789,Austin,2024-09-01,B\n"
+                + "John Smith,john@example.com,0123456789,Boston,2024-09-01,B+\n";
+        StudentImportResult result = service.ingestCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(imported).extracting(StudentBulkImportService.ImportRow::rowNumber).containsExactly(1L, 3L);
+        assertThat(imported.get(0).student().getName()).isEqualTo("Lopez, Maria");
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(bulkImportService).recordError(eq(result), eq(2L), isNull(), message.capture());
+        assertThat(message.getValue()).contains("longer than 80");
+    }
+
+    @Test
+    void rejectsAnOverLongCsvHeader() {
+        StudentIngestService service = new StudentIngestService(mock(StudentBulkImportService.class),
+                new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "maxLineLength", 10);
+
+        assertThatThrownBy(() -> service.ingestCsv(new ByteArrayInputStream(
+                "name,email,contact,city,enrollment_date,grade\n".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("header");
+    }
+
+    private static List<String> readAll(String text, int maxLength) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (StudentIngestService.BoundedLineReader reader =
+                new StudentIngestService.BoundedLineReader(new StringReader(text), maxLength)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}